@@ -3,9 +3,11 @@ package com.vlad.todo;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @EnableCaching
+@EnableScheduling
 @SpringBootApplication
 public class TodoApplication {
 	public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.vlad.todo.cache;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * One independently locked stripe of an {@link LfuCache}.
+ * Implementations decide which entry to drop when the stripe is full.
+ */
+interface CacheSegment<T> {
+
+    int size();
+
+    T get(long id);
+
+    /**
+     * Returns {@code true} if a new entry was inserted, {@code false} if an
+     * existing one was updated.
+     */
+    boolean put(long id, T value);
+
+    boolean remove(long id);
+
+    void clear();
+
+    /**
+     * Passes every value with its access heat (the LFU frequency or the
+     * sketch estimate) to the visitor while holding the segment lock.
+     */
+    void forEach(ObjIntConsumer<? super T> visitor);
+}
@@ -0,0 +1,62 @@
+package com.vlad.todo.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Striped counters of an {@link LfuCache}, with an optional listener for eviction ages.
+ */
+public class CacheStats {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile LongConsumer evictionAgeListener;
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public double hitRatio() {
+        long hitCount = hitCount();
+        long requests = hitCount + missCount();
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    public void setEvictionAgeListener(LongConsumer evictionAgeListener) {
+        this.evictionAgeListener = evictionAgeListener;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordPut() {
+        puts.increment();
+    }
+
+    void recordEviction(long ageNanos) {
+        evictions.increment();
+        LongConsumer listener = evictionAgeListener;
+        if (listener != null) {
+            listener.accept(ageNanos);
+        }
+    }
+}
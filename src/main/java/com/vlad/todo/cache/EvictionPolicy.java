@@ -0,0 +1,36 @@
+package com.vlad.todo.cache;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Eviction policies supported by {@link LfuCache}.
+ */
+public enum EvictionPolicy {
+
+    /** Classic LFU: always evicts the least frequently used entry. */
+    LFU {
+        @Override
+        <T> CacheSegment<T> newSegment(int capacity, long maxWeight,
+                                        ToIntFunction<? super T> weigher, CacheStats stats) {
+            return new LfuSegment<>(capacity, maxWeight, weigher, stats);
+        }
+    },
+
+    /**
+     * Small LRU admission window in front of a segmented LRU main area.
+     * A count-min sketch with periodic aging decides whether an entry leaving
+     * the window may replace the main area's victim, so one-off scans cannot
+     * flush frequently used entries and stale hot keys eventually age out.
+     */
+    W_TINY_LFU {
+        @Override
+        <T> CacheSegment<T> newSegment(int capacity, long maxWeight,
+                                        ToIntFunction<? super T> weigher, CacheStats stats) {
+            return new WTinyLfuSegment<>(capacity, maxWeight, weigher, stats);
+        }
+    };
+
+    abstract <T> CacheSegment<T> newSegment(int capacity, long maxWeight,
+                                            ToIntFunction<? super T> weigher,
+                                            CacheStats stats);
+}
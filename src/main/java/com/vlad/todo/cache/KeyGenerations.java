@@ -0,0 +1,54 @@
+package com.vlad.todo.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidation counters per key stripe, so a loader can tell whether its own
+ * key was invalidated while it ran, and the after-commit hook that runs them.
+ */
+public final class KeyGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public long current(Object key) {
+        return generations.get(stripeOf(key));
+    }
+
+    public boolean changedSince(Object key, long observed) {
+        return generations.get(stripeOf(key)) != observed;
+    }
+
+    /**
+     * Advances the key's generation and runs the eviction; inside a
+     * transaction both happen after commit.
+     */
+    public void invalidate(Object key, Runnable eviction) {
+        afterCommit(() -> {
+            generations.incrementAndGet(stripeOf(key));
+            eviction.run();
+        });
+    }
+
+    /** Runs the action after the current transaction commits, or right away without one. */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int stripeOf(Object key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (STRIPES - 1);
+    }
+}
@@ -1,86 +1,177 @@
 package com.vlad.todo.cache;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Thread-safe frequency-based cache.
+ * Keys are spread over independently locked segments, so request threads only
+ * contend when they hit the same stripe. Each stripe evicts according to the
+ * configured {@link EvictionPolicy}; small caches use a single stripe.
+ * Besides the entry capacity, an optional weight budget bounds the total
+ * weight of the values as measured by a weigher.
+ * Activity is counted in {@link CacheStats}; per-access debug logging is off
+ * unless a log sample rate is set.
+ */
 @Slf4j
-public abstract class LfuCache<T> {
+public class LfuCache<T> {
 
-    private final int capacity;
-    private final Map<Long, Entry<T>> cache = new HashMap<>();
+    private static final int MIN_SEGMENT_CAPACITY = 16;
 
-    protected static class Entry<T> {
-        T value;
-        int frequency;
+    private final List<CacheSegment<T>> segments;
+    private final int segmentMask;
+    private final CacheStats stats = new CacheStats();
+    private volatile int logSampleRate;
 
-        Entry(T value) {
+    private static final class Ranked<T> {
+        final T value;
+        final int heat;
+
+        Ranked(T value, int heat) {
             this.value = value;
-            this.frequency = 1;
+            this.heat = heat;
         }
     }
 
-    protected LfuCache(int capacity) {
-        this.capacity = capacity;
+    public LfuCache(int capacity) {
+        this(capacity, EvictionPolicy.LFU);
     }
 
-    public T get(Long id) {
-        Entry<T> entry = cache.get(id);
-        if (entry == null) {
-            log.info("❌ LFU Cache: Item NOT found in cache. ID: {}", id);
-            return null;
-        }
+    public LfuCache(int capacity, EvictionPolicy policy) {
+        this(capacity, policy, Long.MAX_VALUE, value -> 1);
+    }
 
-        entry.frequency++;
+    public LfuCache(int capacity, EvictionPolicy policy, long maxWeight,
+                    ToIntFunction<? super T> weigher) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Cache max weight must be positive: " + maxWeight);
+        }
+        int segmentCount = segmentCountFor(capacity);
+        this.segmentMask = segmentCount - 1;
+        int base = capacity / segmentCount;
+        int remainder = capacity % segmentCount;
+        long segmentMaxWeight = maxWeight == Long.MAX_VALUE
+                ? Long.MAX_VALUE : (maxWeight + segmentCount - 1) / segmentCount;
+        List<CacheSegment<T>> created = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            created.add(policy.newSegment(
+                    i < remainder ? base + 1 : base, segmentMaxWeight, weigher, stats));
+        }
+        this.segments = List.copyOf(created);
+    }
 
-        log.info("✅ LFU Cache: Item found and retrieved from cache. ID: {},"
-                + " Access frequency: {}", id, entry.frequency);
+    public T get(long id) {
+        T value = lookup(id);
+        if (value == null) {
+            stats.recordMiss();
+        } else {
+            stats.recordHit();
+        }
+        return value;
+    }
 
-        return entry.value;
+    /** Reads an entry and counts the access for eviction, without touching the hit/miss counters. */
+    T lookup(long id) {
+        T value = segmentFor(id).get(id);
+        if (shouldLog()) {
+            log.debug("LFU Cache: lookup of ID {} -> {}", id, value == null ? "miss" : "hit");
+        }
+        return value;
     }
 
-    public void put(Long id, T value) {
-        if (cache.containsKey(id)) {
-            Entry<T> entry = cache.get(id);
-            entry.value = value;
-            entry.frequency++;
-            log.info("🔥 LFU Cache: Item updated in cache. ID: {}, "
-                    + "New frequency: {}", id, entry.frequency);
-        } else {
-            if (cache.size() >= capacity) {
-                evictLeastFrequentlyUsed();
-            }
-            cache.put(id, new Entry<>(value));
-            log.info("🔥 LFU Cache: New item added to cache. ID: {}", id);
+    public void put(long id, T value) {
+        boolean inserted = segmentFor(id).put(id, value);
+        stats.recordPut();
+        if (shouldLog()) {
+            log.debug("LFU Cache: {} ID {}", inserted ? "added" : "updated", id);
         }
     }
 
-    private void evictLeastFrequentlyUsed() {
-        Long lfuKey = null;
-        int minFrequency = Integer.MAX_VALUE;
+    public void remove(long id) {
+        if (segmentFor(id).remove(id) && shouldLog()) {
+            log.debug("LFU Cache: removed ID {}", id);
+        }
+    }
 
-        for (Map.Entry<Long, Entry<T>> entry : cache.entrySet()) {
-            if (entry.getValue().frequency < minFrequency) {
-                minFrequency = entry.getValue().frequency;
-                lfuKey = entry.getKey();
-            }
+    public void clear() {
+        for (CacheSegment<T> segment : segments) {
+            segment.clear();
         }
+        log.debug("LFU Cache: cleared");
+    }
 
-        if (lfuKey != null) {
-            cache.remove(lfuKey);
-            log.info("Evicted item from cache. ID: {},"
-                    + " Frequency at removal: {}", lfuKey, minFrequency);
+    /**
+     * Returns up to {@code limit} values with the highest access heat,
+     * hottest first. Segments are visited one at a time, so the result is
+     * not an atomic snapshot of the whole cache.
+     */
+    public List<T> hottest(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Ranked<T>> top = new PriorityQueue<>(Comparator.comparingInt(r -> r.heat));
+        for (CacheSegment<T> segment : segments) {
+            segment.forEach((value, heat) -> {
+                if (top.size() < limit) {
+                    top.add(new Ranked<>(value, heat));
+                } else if (heat > top.peek().heat) {
+                    top.poll();
+                    top.add(new Ranked<>(value, heat));
+                }
+            });
+        }
+        List<T> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll().value);
         }
+        Collections.reverse(result);
+        return result;
     }
 
-    public void remove(Long id) {
-        if (cache.remove(id) != null) {
-            log.info("Item successfully removed from cache. ID: {}", id);
+    public CacheStats stats() {
+        return stats;
+    }
+
+    /**
+     * Logs roughly one in {@code logSampleRate} accesses at DEBUG level;
+     * {@code 0} disables per-access logging.
+     */
+    public void setLogSampleRate(int logSampleRate) {
+        this.logSampleRate = logSampleRate;
+    }
+
+    public int size() {
+        int size = 0;
+        for (CacheSegment<T> segment : segments) {
+            size += segment.size();
         }
+        return size;
     }
 
-    public void clear() {
-        cache.clear();
-        log.info("All items have been successfully cleared from the cache.");
+    private boolean shouldLog() {
+        int rate = logSampleRate;
+        return rate > 0 && log.isDebugEnabled()
+                && (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+
+    private CacheSegment<T> segmentFor(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return segments.get((int) (h >>> 32) & segmentMask);
+    }
+
+    private static int segmentCountFor(int capacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int wanted = Integer.highestOneBit(Math.max(1, cores * 4 - 1)) << 1;
+        int allowed = Integer.highestOneBit(Math.max(1, capacity / MIN_SEGMENT_CAPACITY));
+        return Math.min(wanted, allowed);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.vlad.todo.cache;
+
+import com.vlad.todo.config.CacheProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Creates one bounded {@link LfuSpringCache} per region under {@code cache.regions};
+ * unknown cache names are rejected.
+ */
+public class LfuCacheManager extends AbstractTransactionSupportingCacheManager
+        implements DisposableBean {
+
+    private static final int REFRESH_THREADS = 2;
+    private static final int REFRESH_QUEUE_SIZE = 256;
+
+    private final Map<String, CacheProperties.Region> regions;
+    private final List<? extends RecordCodec<?>> codecs;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public LfuCacheManager(Map<String, CacheProperties.Region> regions) {
+        this(regions, List.of());
+    }
+
+    /**
+     * @param codecs serializers for regions with an off-heap tier; values no
+     *               codec supports stay on-heap only
+     */
+    public LfuCacheManager(Map<String, CacheProperties.Region> regions,
+                           List<? extends RecordCodec<?>> codecs) {
+        this.regions = regions;
+        this.codecs = List.copyOf(codecs);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        this.refreshExecutor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the {@link LfuSpringCache} behind a region, unwrapping the
+     * transaction-aware decorator.
+     */
+    public LfuSpringCache getLfuCache(String name) {
+        Cache cache = getCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof LfuSpringCache lfuCache) {
+            return lfuCache;
+        }
+        throw new IllegalStateException("Cache region '" + name + "' is not configured");
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        List<Cache> caches = new ArrayList<>();
+        regions.forEach((name, region) ->
+                caches.add(new LfuSpringCache(name, region, refreshExecutor, codecs)));
+        return caches;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
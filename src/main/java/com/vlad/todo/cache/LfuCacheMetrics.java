@@ -0,0 +1,73 @@
+package com.vlad.todo.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link CacheStats} of an {@link LfuSpringCache} as {@code cache.*} meters.
+ */
+public class LfuCacheMetrics extends CacheMeterBinder<LfuSpringCache> {
+
+    private final LfuSpringCache cache;
+
+    public LfuCacheMetrics(LfuSpringCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long size() {
+        return (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return cache.getStats().hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getStats().missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getStats().evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getStats().putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Timer evictionAge = Timer.builder("cache.eviction.age")
+                .description("Time an entry spent in the cache before it was evicted")
+                .tags(getTagsWithCacheName())
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(registry);
+        cache.getStats().setEvictionAgeListener(
+                ageNanos -> evictionAge.record(ageNanos, TimeUnit.NANOSECONDS));
+        if (cache.isOffHeapEnabled()) {
+            Gauge.builder("cache.offheap.size", cache, LfuSpringCache::offHeapSize)
+                    .description("Number of entries in the off-heap tier")
+                    .tags(getTagsWithCacheName())
+                    .register(registry);
+            Gauge.builder("cache.offheap.used", cache, LfuSpringCache::offHeapUsedBytes)
+                    .description("Direct memory taken by off-heap entries")
+                    .tags(getTagsWithCacheName())
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("cache.offheap.reserved", cache, LfuSpringCache::offHeapReservedBytes)
+                    .description("Direct memory allocated for off-heap slabs")
+                    .tags(getTagsWithCacheName())
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.vlad.todo.cache;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Single LFU stripe with constant-time operations.
+ * Entries live in a doubly-linked list of frequency buckets ordered by
+ * ascending frequency; the head bucket always holds the least frequently
+ * used entries, oldest first. Entries are evicted while the segment is over
+ * either its entry capacity or its weight budget. All methods are guarded by
+ * the segment monitor.
+ */
+final class LfuSegment<T> implements CacheSegment<T> {
+
+    private final int capacity;
+    private final long maxWeight;
+    private final ToIntFunction<? super T> weigher;
+    private final CacheStats stats;
+    private final LongHashIndex<Node<T>> index;
+    private FrequencyBucket<T> minFrequencyBucket;
+    private long weight;
+
+    private static final class Node<T> {
+        final long key;
+        T value;
+        int weight;
+        long insertedAt;
+        FrequencyBucket<T> bucket;
+        Node<T> prev;
+        Node<T> next;
+
+        Node(long key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class FrequencyBucket<T> {
+        final int frequency;
+        Node<T> head;
+        Node<T> tail;
+        FrequencyBucket<T> prev;
+        FrequencyBucket<T> next;
+
+        FrequencyBucket(int frequency) {
+            this.frequency = frequency;
+        }
+
+        void append(Node<T> node) {
+            node.bucket = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void unlink(Node<T> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+
+        boolean isEmpty() {
+            return head == null;
+        }
+    }
+
+    LfuSegment(int capacity, long maxWeight, ToIntFunction<? super T> weigher,
+               CacheStats stats) {
+        this.capacity = capacity;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.stats = stats;
+        this.index = new LongHashIndex<>(capacity);
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized T get(long id) {
+        Node<T> node = index.get(id);
+        if (node == null) {
+            return null;
+        }
+        incrementFrequency(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized boolean put(long id, T value) {
+        Node<T> node = index.get(id);
+        int newWeight = weigher.applyAsInt(value);
+        if (node != null) {
+            weight += newWeight - node.weight;
+            node.value = value;
+            node.weight = newWeight;
+            incrementFrequency(node);
+            evictOverweight();
+            return false;
+        } else {
+            if (index.size() >= capacity) {
+                evictLeastFrequentlyUsed();
+            }
+            node = new Node<>(id, value);
+            node.insertedAt = System.nanoTime();
+            node.weight = newWeight;
+            weight += newWeight;
+            index.put(id, node);
+            FrequencyBucket<T> first = minFrequencyBucket;
+            if (first == null || first.frequency != 1) {
+                first = insertBucketAfter(null, 1);
+            }
+            first.append(node);
+            evictOverweight();
+            return true;
+        }
+    }
+
+    private void evictOverweight() {
+        while (weight > maxWeight && minFrequencyBucket != null) {
+            evictLeastFrequentlyUsed();
+        }
+    }
+
+    private void evictLeastFrequentlyUsed() {
+        FrequencyBucket<T> bucket = minFrequencyBucket;
+        if (bucket == null) {
+            return;
+        }
+        Node<T> victim = bucket.head;
+        bucket.unlink(victim);
+        if (bucket.isEmpty()) {
+            removeBucket(bucket);
+        }
+        index.remove(victim.key);
+        weight -= victim.weight;
+        stats.recordEviction(System.nanoTime() - victim.insertedAt);
+    }
+
+    @Override
+    public synchronized boolean remove(long id) {
+        Node<T> node = index.remove(id);
+        if (node == null) {
+            return false;
+        }
+        weight -= node.weight;
+        FrequencyBucket<T> bucket = node.bucket;
+        bucket.unlink(node);
+        if (bucket.isEmpty()) {
+            removeBucket(bucket);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        index.clear();
+        minFrequencyBucket = null;
+        weight = 0;
+    }
+
+    @Override
+    public synchronized void forEach(ObjIntConsumer<? super T> visitor) {
+        for (FrequencyBucket<T> bucket = minFrequencyBucket; bucket != null; bucket = bucket.next) {
+            for (Node<T> node = bucket.head; node != null; node = node.next) {
+                visitor.accept(node.value, bucket.frequency);
+            }
+        }
+    }
+
+    private void incrementFrequency(Node<T> node) {
+        FrequencyBucket<T> current = node.bucket;
+        if (current.frequency == Integer.MAX_VALUE) {
+            current.unlink(node);
+            current.append(node);
+            return;
+        }
+        int nextFrequency = current.frequency + 1;
+        FrequencyBucket<T> target = current.next;
+        if (target == null || target.frequency != nextFrequency) {
+            target = insertBucketAfter(current, nextFrequency);
+        }
+        current.unlink(node);
+        if (current.isEmpty()) {
+            removeBucket(current);
+        }
+        target.append(node);
+    }
+
+    private FrequencyBucket<T> insertBucketAfter(FrequencyBucket<T> previous, int frequency) {
+        FrequencyBucket<T> bucket = new FrequencyBucket<>(frequency);
+        FrequencyBucket<T> next = previous == null ? minFrequencyBucket : previous.next;
+        bucket.prev = previous;
+        bucket.next = next;
+        if (next != null) {
+            next.prev = bucket;
+        }
+        if (previous == null) {
+            minFrequencyBucket = bucket;
+        } else {
+            previous.next = bucket;
+        }
+        return bucket;
+    }
+
+    private void removeBucket(FrequencyBucket<T> bucket) {
+        if (bucket.prev == null) {
+            minFrequencyBucket = bucket.next;
+        } else {
+            bucket.prev.next = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+}
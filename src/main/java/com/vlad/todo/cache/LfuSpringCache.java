@@ -0,0 +1,351 @@
+package com.vlad.todo.cache;
+
+import com.vlad.todo.config.CacheProperties;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by an {@link LfuCache},
+ * with coalesced loads, refresh-ahead and an optional off-heap second tier.
+ */
+@Slf4j
+public class LfuSpringCache extends AbstractValueAdaptingCache {
+
+    private static final int MIN_STRIPES = 64;
+    private static final int MAX_STRIPES = 4096;
+
+    private final String name;
+    private final LfuCache<Entry> store;
+    private final OffHeapStore offHeap;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    // writes started and finished per key stripe; a load checks them for its own key only
+    private final AtomicLongArray writesStarted;
+    private final AtomicLongArray writesFinished;
+    private final int stripeMask;
+    private volatile Function<Object, ?> refreshLoader;
+
+    private static final class Entry {
+        final Object key;
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object key, Object value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public LfuSpringCache(String name, CacheProperties.Region region, Executor refreshExecutor,
+                          List<? extends RecordCodec<?>> codecs) {
+        super(true);
+        this.name = name;
+        this.store = new LfuCache<>(region.getCapacity(), region.getPolicy(),
+                region.getMaxWeight(), LfuSpringCache::weigh);
+        this.store.setLogSampleRate(region.getLogSampleRate());
+        this.offHeap = region.getOffHeapBytes() == null
+                || region.getOffHeapBytes().toBytes() < OffHeapStore.SLAB_SIZE || codecs.isEmpty()
+                ? null : new OffHeapStore(region.getOffHeapBytes().toBytes(), codecs);
+        this.ttlNanos = region.getTtl() == null || region.getTtl().isZero()
+                ? 0 : region.getTtl().toNanos();
+        this.refreshAheadNanos = ttlNanos > 0 && region.getRefreshAhead() != null
+                ? Math.min(region.getRefreshAhead().toNanos(), ttlNanos) : 0;
+        this.refreshExecutor = refreshExecutor;
+        int stripes = Math.min(MAX_STRIPES,
+                Integer.highestOneBit(Math.max(MIN_STRIPES, region.getCapacity() - 1)) << 1);
+        this.writesStarted = new AtomicLongArray(stripes);
+        this.writesFinished = new AtomicLongArray(stripes);
+        this.stripeMask = stripes - 1;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LfuCache<?> getNativeCache() {
+        return store;
+    }
+
+    public CacheStats getStats() {
+        return store.stats();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /** Keys of the most frequently used live on-heap entries, hottest first. */
+    public List<Object> hottestKeys(int limit) {
+        long now = System.nanoTime();
+        List<Object> keys = new ArrayList<>();
+        for (Entry entry : store.hottest(limit)) {
+            if (ttlNanos == 0 || entry.expiresAt - now >= 0) {
+                keys.add(entry.key);
+            }
+        }
+        return keys;
+    }
+
+    public boolean isOffHeapEnabled() {
+        return offHeap != null;
+    }
+
+    public int offHeapSize() {
+        return offHeap == null ? 0 : offHeap.size();
+    }
+
+    public long offHeapUsedBytes() {
+        return offHeap == null ? 0 : offHeap.usedBytes();
+    }
+
+    public long offHeapReservedBytes() {
+        return offHeap == null ? 0 : offHeap.reservedBytes();
+    }
+
+    /**
+     * Registers the loader used for refresh-ahead. It receives a cache key and
+     * returns the fresh value, or {@code null} if the key no longer exists.
+     */
+    public void setRefreshLoader(Function<Object, ?> refreshLoader) {
+        this.refreshLoader = refreshLoader;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object storeValue = find(key);
+        if (storeValue == null) {
+            store.stats().recordMiss();
+        } else {
+            store.stats().recordHit();
+        }
+        return storeValue;
+    }
+
+    private Object find(Object key) {
+        long id = idFor(key);
+        Entry entry = store.lookup(id);
+        if (entry == null && offHeap != null && key instanceof Number) {
+            entry = promote(key, id);
+        }
+        if (entry == null || !entry.key.equals(key)) {
+            return null;
+        }
+        if (ttlNanos > 0) {
+            long remaining = entry.expiresAt - System.nanoTime();
+            if (remaining < 0) {
+                // not a write: loads of this key started before still hold newer data
+                remove(id);
+                return null;
+            }
+            if (remaining < refreshAheadNanos) {
+                refreshAsync(key);
+            }
+        }
+        return entry.value;
+    }
+
+    /** Copies an off-heap entry on-heap, unless a write to its key overlapped the read. */
+    private Entry promote(Object key, long id) {
+        int stripe = stripeOf(id);
+        long finished = writesFinished.get(stripe);
+        boolean quiet = writesStarted.get(stripe) == finished;
+        OffHeapStore.Record record = offHeap.get(id);
+        if (record == null) {
+            return null;
+        }
+        Entry entry = new Entry(key, record.value, record.expiresAt);
+        if (quiet) {
+            store.put(id, entry);
+            if (writesStarted.get(stripe) != finished) {
+                store.remove(id);
+            }
+        }
+        return entry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            return (T) fromStoreValue(storeValue);
+        }
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, loading);
+        if (running != null) {
+            return (T) fromStoreValue(await(running, key, valueLoader));
+        }
+        try {
+            // another loader may have finished between the lookup and the registration
+            storeValue = find(key);
+            if (storeValue == null) {
+                long version = versionOf(key);
+                storeValue = toStoreValue(valueLoader.call());
+                putIfUnchanged(key, storeValue, version);
+            }
+            loading.complete(storeValue);
+            return (T) fromStoreValue(storeValue);
+        } catch (Exception ex) {
+            loading.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putStoreValue(key, toStoreValue(value));
+    }
+
+    private void putStoreValue(Object key, Object storeValue) {
+        long id = idFor(key);
+        int stripe = stripeOf(id);
+        writesStarted.incrementAndGet(stripe);
+        try {
+            writeThrough(key, storeValue);
+        } finally {
+            writesFinished.incrementAndGet(stripe);
+        }
+    }
+
+    /** Version to pass to {@link #putIfUnchanged} once a value for the key is loaded. */
+    private long versionOf(Object key) {
+        return writesStarted.get(stripeOf(idFor(key)));
+    }
+
+    /**
+     * Stores a loaded value and takes it back if a put, evict or clear of its
+     * key started after {@code version} was taken; the newer write wins.
+     */
+    private void putIfUnchanged(Object key, Object storeValue, long version) {
+        long id = idFor(key);
+        int stripe = stripeOf(id);
+        if (writesStarted.get(stripe) != version) {
+            return;
+        }
+        writeThrough(key, storeValue);
+        if (writesStarted.get(stripe) != version) {
+            remove(id);
+        }
+    }
+
+    private void writeThrough(Object key, Object storeValue) {
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        long id = idFor(key);
+        store.put(id, new Entry(key, storeValue, expiresAt));
+        if (offHeap != null && key instanceof Number) {
+            offHeap.put(id, storeValue, expiresAt);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        long id = idFor(key);
+        int stripe = stripeOf(id);
+        writesStarted.incrementAndGet(stripe);
+        try {
+            remove(id);
+        } finally {
+            writesFinished.incrementAndGet(stripe);
+        }
+    }
+
+    private void remove(long id) {
+        store.remove(id);
+        if (offHeap != null) {
+            offHeap.remove(id);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i <= stripeMask; i++) {
+            writesStarted.incrementAndGet(i);
+        }
+        try {
+            store.clear();
+            if (offHeap != null) {
+                offHeap.clear();
+            }
+        } finally {
+            for (int i = 0; i <= stripeMask; i++) {
+                writesFinished.incrementAndGet(i);
+            }
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running, Object key, Callable<?> valueLoader) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    private void refreshAsync(Object key) {
+        Function<Object, ?> loader = refreshLoader;
+        if (loader == null || !refreshing.add(key)) {
+            return;
+        }
+        long version = versionOf(key);
+        try {
+            refreshExecutor.execute(() -> refresh(key, loader, version));
+        } catch (RuntimeException ex) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void refresh(Object key, Function<Object, ?> loader, long version) {
+        try {
+            Object value = loader.apply(key);
+            if (value == null) {
+                evict(key);
+            } else {
+                putIfUnchanged(key, toStoreValue(value), version);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Refresh of key {} in cache {} failed: {}", key, name, ex.getMessage());
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private int stripeOf(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & stripeMask;
+    }
+
+    private static long idFor(Object key) {
+        if (key instanceof Number number) {
+            return number.longValue();
+        }
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static int weigh(Entry entry) {
+        if (entry.value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,129 @@
+package com.vlad.todo.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table with primitive {@code long} keys.
+ * Uses linear probing and backward-shift deletion, so there are no tombstones
+ * and no {@code Long} boxing on lookups.
+ */
+final class LongHashIndex<V> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    LongHashIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int i = indexFor(key);
+        Object value;
+        while ((value = values[i]) != null) {
+            if (keys[i] == key) {
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int i = indexFor(key);
+        Object previous;
+        while ((previous = values[i]) != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return (V) previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            resize();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int i = indexFor(key);
+        Object value;
+        while ((value = values[i]) != null) {
+            if (keys[i] == key) {
+                shiftDown(i);
+                size--;
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void shiftDown(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = indexFor(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = indexFor(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        threshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    private int indexFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int required = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        return Math.max(2, Integer.highestOneBit(required - 1) << 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.vlad.todo.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from {@code long} keys to non-negative {@code long} values.
+ */
+final class LongLongHashIndex {
+
+    static final long ABSENT = -1L;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    LongLongHashIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(long key) {
+        int i = indexFor(key);
+        while (values[i] != ABSENT) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    long put(long key, long value) {
+        int i = indexFor(key);
+        while (values[i] != ABSENT) {
+            if (keys[i] == key) {
+                long previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            resize();
+        }
+        return ABSENT;
+    }
+
+    long remove(long key) {
+        int i = indexFor(key);
+        while (values[i] != ABSENT) {
+            if (keys[i] == key) {
+                long value = values[i];
+                shiftDown(i);
+                size--;
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    void clear() {
+        Arrays.fill(values, ABSENT);
+        size = 0;
+    }
+
+    private void shiftDown(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == ABSENT) {
+                break;
+            }
+            int home = indexFor(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = ABSENT;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != ABSENT) {
+                int i = indexFor(oldKeys[j]);
+                while (values[i] != ABSENT) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new long[tableSize];
+        Arrays.fill(values, ABSENT);
+        mask = tableSize - 1;
+        threshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    private int indexFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int required = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        return Math.max(2, Integer.highestOneBit(required - 1) << 1);
+    }
+}
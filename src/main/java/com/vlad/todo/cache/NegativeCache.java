@@ -0,0 +1,64 @@
+package com.vlad.todo.cache;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ids that were looked up and did not exist, per entity type.
+ */
+@Component
+public class NegativeCache {
+
+    public static final String MISSING_USERS = "missing-users";
+    public static final String MISSING_TASKS = "missing-tasks";
+    public static final String MISSING_GROUPS = "missing-groups";
+
+    private final LfuCacheManager cacheManager;
+    private final KeyGenerations generations = new KeyGenerations();
+
+    public NegativeCache(LfuCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public <T> T findOrThrow(String region, long id, LongFunction<Optional<T>> finder,
+                             Supplier<? extends RuntimeException> notFound) {
+        LfuSpringCache missing = cacheManager.getLfuCache(region);
+        if (missing.get(id) != null) {
+            throw notFound.get();
+        }
+        List<Object> key = List.of(region, id);
+        long observed = generations.current(key);
+        Optional<T> found = finder.apply(id);
+        if (found.isEmpty()) {
+            missing.put(id, Boolean.TRUE);
+            if (generations.changedSince(key, observed)) {
+                missing.evict(id);
+            }
+            throw notFound.get();
+        }
+        return found.get();
+    }
+
+    /**
+     * Forgets that an id was missing. Inside a transaction this happens after
+     * commit, when the new row becomes visible to other requests.
+     */
+    public void invalidate(String region, long id) {
+        generations.invalidate(List.of(region, id), () -> doInvalidate(region, id));
+    }
+
+    private void doInvalidate(String region, long id) {
+        Cache missing = cacheManager.getCache(region);
+        if (missing instanceof TransactionAwareCacheDecorator decorator) {
+            missing = decorator.getTargetCache();
+        }
+        if (missing != null) {
+            missing.evict(id);
+        }
+    }
+}
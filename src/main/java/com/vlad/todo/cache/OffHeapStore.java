@@ -0,0 +1,267 @@
+package com.vlad.todo.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Second cache tier keeping serialized values in direct memory, in slabs of
+ * fixed-size chunks with CLOCK eviction per size class.
+ */
+final class OffHeapStore {
+
+    static final int SLAB_SIZE = 1 << 20;
+
+    private static final int MIN_CHUNK_SHIFT = 6;
+    private static final int MAX_CHUNK_SHIFT = 16;
+    private static final int KEY = 0;
+    private static final int EXPIRES_AT = 8;
+    private static final int REFERENCED = 16;
+    private static final int CODEC = 17;
+    private static final int LENGTH = 18;
+    private static final int HEADER = 22;
+
+    private final int maxSlabs;
+    private final List<RecordCodec<Object>> codecs;
+    private final LongLongHashIndex index = new LongLongHashIndex(1024);
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final List<SizeClass> slabClasses = new ArrayList<>();
+    private final SizeClass[] classes = new SizeClass[MAX_CHUNK_SHIFT - MIN_CHUNK_SHIFT + 1];
+    private final RecordWriter writer = new RecordWriter();
+    private long usedBytes;
+
+    /** A value read back from direct memory together with its expiry. */
+    static final class Record {
+        final Object value;
+        final long expiresAt;
+
+        Record(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class SizeClass {
+        final int chunkSize;
+        final List<Integer> slabIds = new ArrayList<>();
+        long[] free = new long[0];
+        int freeCount;
+        int handSlab;
+        int handOffset;
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        void push(long handle) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, Math.max(16, free.length << 1));
+            }
+            free[freeCount++] = handle;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    OffHeapStore(long maxBytes, List<? extends RecordCodec<?>> codecs) {
+        if (codecs.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many record codecs: " + codecs.size());
+        }
+        this.maxSlabs = (int) Math.min(maxBytes / SLAB_SIZE, Integer.MAX_VALUE);
+        this.codecs = (List<RecordCodec<Object>>) List.copyOf(codecs);
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new SizeClass(1 << (MIN_CHUNK_SHIFT + i));
+        }
+    }
+
+    /** Stores a value, or drops any previous one if it cannot be serialized or does not fit. */
+    synchronized boolean put(long key, Object value, long expiresAt) {
+        remove(key);
+        int codec = codecFor(value);
+        if (codec < 0) {
+            return false;
+        }
+        writer.reset();
+        codecs.get(codec).write(value, writer);
+        int recordSize = HEADER + writer.length();
+        if (recordSize > 1 << MAX_CHUNK_SHIFT) {
+            return false;
+        }
+        SizeClass sizeClass = classes[classIndexFor(recordSize)];
+        long handle = allocate(sizeClass);
+        if (handle < 0) {
+            return false;
+        }
+        ByteBuffer slab = slabs.get(slabOf(handle));
+        int offset = offsetOf(handle);
+        slab.putLong(offset + KEY, key);
+        slab.putLong(offset + EXPIRES_AT, expiresAt);
+        slab.put(offset + REFERENCED, (byte) 0);
+        slab.put(offset + CODEC, (byte) codec);
+        slab.putInt(offset + LENGTH, writer.length());
+        slab.put(offset + HEADER, writer.bytes(), 0, writer.length());
+        index.put(key, handle);
+        usedBytes += sizeClass.chunkSize;
+        return true;
+    }
+
+    synchronized Record get(long key) {
+        long handle = index.get(key);
+        if (handle == LongLongHashIndex.ABSENT) {
+            return null;
+        }
+        ByteBuffer slab = slabs.get(slabOf(handle));
+        int offset = offsetOf(handle);
+        slab.put(offset + REFERENCED, (byte) 1);
+        ByteBuffer payload = slab.duplicate();
+        payload.limit(offset + HEADER + slab.getInt(offset + LENGTH)).position(offset + HEADER);
+        Object value = codecs.get(slab.get(offset + CODEC)).read(payload);
+        return new Record(value, slab.getLong(offset + EXPIRES_AT));
+    }
+
+    synchronized boolean remove(long key) {
+        long handle = index.remove(key);
+        if (handle == LongLongHashIndex.ABSENT) {
+            return false;
+        }
+        release(handle);
+        return true;
+    }
+
+    synchronized void clear() {
+        index.clear();
+        for (SizeClass sizeClass : classes) {
+            sizeClass.freeCount = 0;
+            for (int slabId : sizeClass.slabIds) {
+                addChunks(sizeClass, slabId);
+            }
+        }
+        usedBytes = 0;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    /** Bytes taken by stored records, counted in whole chunks. */
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    synchronized long reservedBytes() {
+        return (long) slabs.size() * SLAB_SIZE;
+    }
+
+    private int codecFor(Object value) {
+        for (int i = 0; i < codecs.size(); i++) {
+            if (codecs.get(i).supports(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long allocate(SizeClass sizeClass) {
+        if (sizeClass.freeCount == 0) {
+            if (slabs.size() < maxSlabs) {
+                int slabId = slabs.size();
+                slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+                slabClasses.add(sizeClass);
+                sizeClass.slabIds.add(slabId);
+                addChunks(sizeClass, slabId);
+            } else if (sizeClass.slabIds.isEmpty()) {
+                if (!reassignSlab(sizeClass)) {
+                    return -1;
+                }
+            } else {
+                return evictOne(sizeClass);
+            }
+        }
+        return sizeClass.free[--sizeClass.freeCount];
+    }
+
+    private long evictOne(SizeClass sizeClass) {
+        // every chunk of the class is in use here, so the hand only meets live records
+        while (true) {
+            int slabId = sizeClass.slabIds.get(sizeClass.handSlab);
+            ByteBuffer slab = slabs.get(slabId);
+            int offset = sizeClass.handOffset;
+            sizeClass.handOffset += sizeClass.chunkSize;
+            if (sizeClass.handOffset >= SLAB_SIZE) {
+                sizeClass.handOffset = 0;
+                sizeClass.handSlab = (sizeClass.handSlab + 1) % sizeClass.slabIds.size();
+            }
+            if (slab.get(offset + REFERENCED) != 0) {
+                slab.put(offset + REFERENCED, (byte) 0);
+                continue;
+            }
+            index.remove(slab.getLong(offset + KEY));
+            usedBytes -= sizeClass.chunkSize;
+            return handleOf(slabId, offset);
+        }
+    }
+
+    private boolean reassignSlab(SizeClass target) {
+        SizeClass donor = null;
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass.slabIds.size() > 1
+                    && (donor == null || sizeClass.slabIds.size() > donor.slabIds.size())) {
+                donor = sizeClass;
+            }
+        }
+        if (donor == null) {
+            return false;
+        }
+        int slabId = donor.slabIds.remove(donor.slabIds.size() - 1);
+        ByteBuffer slab = slabs.get(slabId);
+        int kept = 0;
+        for (int i = 0; i < donor.freeCount; i++) {
+            if (slabOf(donor.free[i]) != slabId) {
+                donor.free[kept++] = donor.free[i];
+            }
+        }
+        donor.freeCount = kept;
+        for (int offset = 0; offset < SLAB_SIZE; offset += donor.chunkSize) {
+            long key = slab.getLong(offset + KEY);
+            if (index.get(key) == handleOf(slabId, offset)) {
+                index.remove(key);
+                usedBytes -= donor.chunkSize;
+            }
+        }
+        donor.handSlab = 0;
+        donor.handOffset = 0;
+        slabClasses.set(slabId, target);
+        target.slabIds.add(slabId);
+        addChunks(target, slabId);
+        return true;
+    }
+
+    private void release(long handle) {
+        SizeClass sizeClass = slabClasses.get(slabOf(handle));
+        sizeClass.push(handle);
+        usedBytes -= sizeClass.chunkSize;
+    }
+
+    private static void addChunks(SizeClass sizeClass, int slabId) {
+        for (int offset = SLAB_SIZE - sizeClass.chunkSize; offset >= 0; offset -= sizeClass.chunkSize) {
+            sizeClass.push(handleOf(slabId, offset));
+        }
+    }
+
+    private static int classIndexFor(int recordSize) {
+        int shift = 32 - Integer.numberOfLeadingZeros(recordSize - 1);
+        return Math.max(0, shift - MIN_CHUNK_SHIFT);
+    }
+
+    private static long handleOf(int slabId, int offset) {
+        return ((long) slabId << 32) | offset;
+    }
+
+    private static int slabOf(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    private static int offsetOf(long handle) {
+        return (int) handle;
+    }
+}
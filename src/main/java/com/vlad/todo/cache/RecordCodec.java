@@ -0,0 +1,15 @@
+package com.vlad.todo.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of a cached value for the off-heap tier.
+ */
+public interface RecordCodec<T> {
+
+    boolean supports(Object value);
+
+    void write(T value, RecordWriter out);
+
+    T read(ByteBuffer in);
+}
@@ -0,0 +1,106 @@
+package com.vlad.todo.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that {@link RecordCodec}s write into, with matching
+ * static readers. Nullable values carry a one-byte presence flag.
+ */
+public final class RecordWriter {
+
+    private byte[] bytes = new byte[256];
+    private int length;
+
+    void reset() {
+        length = 0;
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    public void writeInt(int value) {
+        ensure(4);
+        bytes[length++] = (byte) (value >>> 24);
+        bytes[length++] = (byte) (value >>> 16);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeNullableLong(Long value) {
+        writeFlag(value != null);
+        if (value != null) {
+            writeLong(value);
+        }
+    }
+
+    public void writeBoolean(Boolean value) {
+        ensure(1);
+        bytes[length++] = value == null ? (byte) 0 : value ? (byte) 2 : (byte) 1;
+    }
+
+    public void writeDate(LocalDate value) {
+        writeFlag(value != null);
+        if (value != null) {
+            writeLong(value.toEpochDay());
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(utf8.length);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, bytes, length, utf8.length);
+        length += utf8.length;
+    }
+
+    public static Long readNullableLong(ByteBuffer in) {
+        return in.get() == 0 ? null : in.getLong();
+    }
+
+    public static Boolean readBoolean(ByteBuffer in) {
+        byte value = in.get();
+        return value == 0 ? null : value == 2;
+    }
+
+    public static LocalDate readDate(ByteBuffer in) {
+        return in.get() == 0 ? null : LocalDate.ofEpochDay(in.getLong());
+    }
+
+    public static String readString(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[size];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private void writeFlag(boolean present) {
+        ensure(1);
+        bytes[length++] = present ? (byte) 1 : (byte) 0;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, length + extra));
+        }
+    }
+}
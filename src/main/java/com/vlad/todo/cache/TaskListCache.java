@@ -0,0 +1,49 @@
+package com.vlad.todo.cache;
+
+import com.vlad.todo.dto.TaskDtoResponse;
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user cache of the default first page of tasks, invalidated after commit.
+ */
+@Component
+public class TaskListCache {
+
+    public static final String CACHE_NAME = "user-tasks";
+
+    private final Cache cache;
+    private final KeyGenerations generations = new KeyGenerations();
+
+    public TaskListCache(CacheManager cacheManager) {
+        Cache region = cacheManager.getCache(CACHE_NAME);
+        if (region == null) {
+            throw new IllegalStateException("Cache region '" + CACHE_NAME + "' is not configured");
+        }
+        this.cache = region instanceof TransactionAwareCacheDecorator decorator
+                ? decorator.getTargetCache() : region;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<TaskDtoResponse> get(long userId, Supplier<List<TaskDtoResponse>> loader) {
+        Cache.ValueWrapper cached = cache.get(userId);
+        if (cached != null) {
+            return (List<TaskDtoResponse>) cached.get();
+        }
+        long observed = generations.current(userId);
+        List<TaskDtoResponse> tasks = List.copyOf(loader.get());
+        cache.put(userId, tasks);
+        if (generations.changedSince(userId, observed)) {
+            cache.evict(userId);
+        }
+        return tasks;
+    }
+
+    public void evict(long userId) {
+        generations.invalidate(userId, () -> cache.evict(userId));
+    }
+}
@@ -0,0 +1,57 @@
+package com.vlad.todo.cache;
+
+import com.vlad.todo.dto.TaskDtoResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/** Encodes the per-user task lists kept in {@link TaskListCache}. */
+@Component
+public class TaskListCodec implements RecordCodec<List<TaskDtoResponse>> {
+
+    @Override
+    public boolean supports(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return false;
+        }
+        for (Object element : list) {
+            if (!(element instanceof TaskDtoResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void write(List<TaskDtoResponse> tasks, RecordWriter out) {
+        out.writeInt(tasks.size());
+        for (TaskDtoResponse task : tasks) {
+            out.writeNullableLong(task.getId());
+            out.writeString(task.getTitle());
+            out.writeString(task.getContent());
+            out.writeBoolean(task.getIsCompleted());
+            out.writeDate(task.getDeadlineDate());
+            out.writeBoolean(task.getIsImportant());
+            out.writeNullableLong(task.getUserId());
+        }
+    }
+
+    @Override
+    public List<TaskDtoResponse> read(ByteBuffer in) {
+        int size = in.getInt();
+        List<TaskDtoResponse> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskDtoResponse task = new TaskDtoResponse();
+            task.setId(RecordWriter.readNullableLong(in));
+            task.setTitle(RecordWriter.readString(in));
+            task.setContent(RecordWriter.readString(in));
+            task.setIsCompleted(RecordWriter.readBoolean(in));
+            task.setDeadlineDate(RecordWriter.readDate(in));
+            task.setIsImportant(RecordWriter.readBoolean(in));
+            task.setUserId(RecordWriter.readNullableLong(in));
+            tasks.add(task);
+        }
+        return List.copyOf(tasks);
+    }
+}
@@ -0,0 +1,36 @@
+package com.vlad.todo.cache;
+
+import com.vlad.todo.dto.UserDtoResponse;
+import java.nio.ByteBuffer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserDtoCodec implements RecordCodec<UserDtoResponse> {
+
+    @Override
+    public boolean supports(Object value) {
+        return value instanceof UserDtoResponse;
+    }
+
+    @Override
+    public void write(UserDtoResponse user, RecordWriter out) {
+        out.writeNullableLong(user.getId());
+        out.writeString(user.getEmail());
+        out.writeString(user.getFirstName());
+        out.writeString(user.getLastName());
+        out.writeString(user.getPhone());
+        out.writeString(user.getRole());
+    }
+
+    @Override
+    public UserDtoResponse read(ByteBuffer in) {
+        return UserDtoResponse.builder()
+                .id(RecordWriter.readNullableLong(in))
+                .email(RecordWriter.readString(in))
+                .firstName(RecordWriter.readString(in))
+                .lastName(RecordWriter.readString(in))
+                .phone(RecordWriter.readString(in))
+                .role(RecordWriter.readString(in))
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.vlad.todo.cache;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Single W-TinyLFU stripe.
+ * New entries enter a small LRU window (1% of the capacity). Entries pushed
+ * out of the window join the probation part of a segmented LRU main area and
+ * are kept only if the {@link FrequencySketch} estimates them as more popular
+ * than the main area's victim. Hits in probation promote an entry to the
+ * protected part (80% of the main area). When the segment is over its weight
+ * budget the same admission contest runs until it fits again. All methods are
+ * guarded by the segment monitor.
+ */
+final class WTinyLfuSegment<T> implements CacheSegment<T> {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final long maxWeight;
+    private final ToIntFunction<? super T> weigher;
+    private final CacheStats stats;
+    private final LongHashIndex<Node<T>> index;
+    private final FrequencySketch sketch;
+    private final AccessQueue<T> window = new AccessQueue<>();
+    private final AccessQueue<T> probation = new AccessQueue<>();
+    private final AccessQueue<T> protectedQueue = new AccessQueue<>();
+    private long weight;
+
+    private static final class Node<T> {
+        final long key;
+        T value;
+        int weight;
+        long insertedAt;
+        byte queue;
+        Node<T> prev;
+        Node<T> next;
+
+        Node(long key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class AccessQueue<T> {
+        Node<T> head;
+        Node<T> tail;
+        int size;
+
+        void append(Node<T> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void unlink(Node<T> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToTail(Node<T> node) {
+            if (node != tail) {
+                unlink(node);
+                append(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+
+    WTinyLfuSegment(int capacity, long maxWeight, ToIntFunction<? super T> weigher,
+                    CacheStats stats) {
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.stats = stats;
+        this.index = new LongHashIndex<>(capacity);
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized T get(long id) {
+        sketch.increment(id);
+        Node<T> node = index.get(id);
+        if (node == null) {
+            return null;
+        }
+        onHit(node);
+        return node.value;
+    }
+
+    @Override
+    public synchronized boolean put(long id, T value) {
+        sketch.increment(id);
+        Node<T> node = index.get(id);
+        int newWeight = weigher.applyAsInt(value);
+        if (node != null) {
+            weight += newWeight - node.weight;
+            node.value = value;
+            node.weight = newWeight;
+            onHit(node);
+            evictOverweight();
+            return false;
+        }
+        node = new Node<>(id, value);
+        node.insertedAt = System.nanoTime();
+        node.weight = newWeight;
+        weight += newWeight;
+        index.put(id, node);
+        node.queue = WINDOW;
+        window.append(node);
+        if (window.size > windowCapacity) {
+            Node<T> candidate = window.head;
+            window.unlink(candidate);
+            candidate.queue = PROBATION;
+            probation.append(candidate);
+            if (probation.size + protectedQueue.size > mainCapacity) {
+                evictFromMain(candidate);
+            }
+        }
+        evictOverweight();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(long id) {
+        Node<T> node = index.remove(id);
+        if (node == null) {
+            return false;
+        }
+        queueOf(node).unlink(node);
+        weight -= node.weight;
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        index.clear();
+        window.clear();
+        probation.clear();
+        protectedQueue.clear();
+        sketch.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized void forEach(ObjIntConsumer<? super T> visitor) {
+        visit(window, visitor);
+        visit(probation, visitor);
+        visit(protectedQueue, visitor);
+    }
+
+    private void visit(AccessQueue<T> queue, ObjIntConsumer<? super T> visitor) {
+        for (Node<T> node = queue.head; node != null; node = node.next) {
+            visitor.accept(node.value, sketch.frequency(node.key));
+        }
+    }
+
+    private void onHit(Node<T> node) {
+        if (node.queue == PROBATION) {
+            probation.unlink(node);
+            node.queue = PROTECTED;
+            protectedQueue.append(node);
+            if (protectedQueue.size > protectedCapacity) {
+                Node<T> demoted = protectedQueue.head;
+                protectedQueue.unlink(demoted);
+                demoted.queue = PROBATION;
+                probation.append(demoted);
+            }
+        } else {
+            queueOf(node).moveToTail(node);
+        }
+    }
+
+    private void evictOverweight() {
+        while (weight > maxWeight && index.size() > 0) {
+            Node<T> candidate = window.head;
+            if (candidate != null) {
+                window.unlink(candidate);
+                candidate.queue = PROBATION;
+                probation.append(candidate);
+            } else {
+                candidate = probation.head != null ? probation.head : protectedQueue.head;
+            }
+            evictFromMain(candidate);
+        }
+    }
+
+    private void evictFromMain(Node<T> candidate) {
+        Node<T> victim = probation.head;
+        if (victim == candidate) {
+            victim = protectedQueue.head;
+        }
+        Node<T> evicted;
+        if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            evicted = candidate;
+        } else {
+            evicted = victim;
+        }
+        queueOf(evicted).unlink(evicted);
+        index.remove(evicted.key);
+        weight -= evicted.weight;
+        stats.recordEviction(System.nanoTime() - evicted.insertedAt);
+    }
+
+    private AccessQueue<T> queueOf(Node<T> node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedQueue;
+        }
+    }
+}
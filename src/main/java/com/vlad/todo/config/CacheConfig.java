@@ -1,16 +1,32 @@
 package com.vlad.todo.config;
 
-import org.springframework.cache.CacheManager;
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuCacheMetrics;
+import com.vlad.todo.cache.LfuSpringCache;
+import com.vlad.todo.cache.RecordCodec;
+import java.util.List;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("users");
+    public LfuCacheManager cacheManager(CacheProperties cacheProperties,
+                                        List<RecordCodec<?>> recordCodecs) {
+        LfuCacheManager cacheManager =
+                new LfuCacheManager(cacheProperties.getRegions(), recordCodecs);
+        // puts and evictions inside a transaction are applied after commit
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<LfuSpringCache> lfuCacheMeterBinderProvider() {
+        return LfuCacheMetrics::new;
     }
 }
@@ -0,0 +1,51 @@
+package com.vlad.todo.config;
+
+import com.vlad.todo.cache.EvictionPolicy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /** Named cache regions, e.g. {@code cache.regions.users.capacity=1000}. */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    private Warmup warmup = new Warmup();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private int capacity = 1000;
+        /** Time to live after write; {@code null} keeps entries until evicted. */
+        private Duration ttl;
+        /** Reload entries in the background when they are read this close to expiry. */
+        private Duration refreshAhead;
+        /** Upper bound for the summed weight (collection size, 1 otherwise) of all values. */
+        private long maxWeight = Long.MAX_VALUE;
+        private EvictionPolicy policy = EvictionPolicy.W_TINY_LFU;
+        /** Logs about one in N accesses at DEBUG level; 0 turns access logging off. */
+        private int logSampleRate;
+        /** Direct memory for a serialized second tier, e.g. {@code 64MB}; unset keeps entries on-heap only. */
+        private DataSize offHeapBytes;
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        /** Snapshot of the hottest user ids written at shutdown; unset disables warm-up. */
+        private Path file;
+        /** Most ids written to the snapshot and reloaded at startup. */
+        private int maxEntries = 1000;
+        /** Time the startup reload may take before the rest is skipped. */
+        private Duration timeout = Duration.ofSeconds(10);
+        private int batchSize = 100;
+    }
+}
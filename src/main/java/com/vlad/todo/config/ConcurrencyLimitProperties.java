@@ -0,0 +1,37 @@
+package com.vlad.todo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 5;
+    private int maxLimit = 200;
+    /** How much slower than the long-term latency a window may be before the limit shrinks. */
+    private double tolerance = 1.5;
+
+    /** Share of the limit for requests that match no lane. */
+    private double defaultShare = 0.9;
+
+    /** Lanes checked in order; the first one matching method and path applies. */
+    private List<Lane> lanes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Lane {
+        /** Ant-style path pattern. */
+        private String pattern;
+        /** HTTP method, or empty for any. */
+        private String method;
+        /** Fraction of the current limit this lane may fill; lower lanes are shed first. */
+        private double share = 1.0;
+    }
+}
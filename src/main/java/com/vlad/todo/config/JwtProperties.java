@@ -0,0 +1,31 @@
+package com.vlad.todo.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.jwt")
+public class JwtProperties {
+
+    /**
+     * Build the principal from the verified token claims instead of loading
+     * the user; tokens issued before this mode existed still use the database.
+     */
+    private boolean stateless;
+
+    /** File with the base64 master secret the signing keys are derived from. */
+    private Path keyFile;
+
+    /** Base64 master secret, used when no key file is set. */
+    private String secret;
+
+    /** How long one derived signing key is used for new tokens. */
+    private Duration keyRotation = Duration.ofDays(1);
+
+    /** How long a retired key still verifies tokens; never shorter than the token lifetime. */
+    private Duration keyGracePeriod = Duration.ofHours(1);
+}
@@ -0,0 +1,23 @@
+package com.vlad.todo.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.password")
+public class PasswordProperties {
+
+    /** Hash time the BCrypt cost is calibrated to at startup. */
+    private Duration targetHashTime = Duration.ofMillis(250);
+
+    /**
+     * Lowest cost ever used, whatever the hardware. Calibration may pick a
+     * cost below 10 on slow hosts; that is logged as a warning.
+     */
+    private int minStrength = 8;
+
+    private int maxStrength = 14;
+}
@@ -0,0 +1,32 @@
+package com.vlad.todo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound for the number of tracked clients; new clients pass unlimited while it is reached. */
+    private int maxClients = 100_000;
+
+    /** Rules checked in order; the first one whose pattern matches the path applies. */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        /** Ant-style path pattern, e.g. {@code /auth/login} or {@code /**}. */
+        private String pattern;
+        /** Requests allowed in a burst; the bucket refills at this many per period. */
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
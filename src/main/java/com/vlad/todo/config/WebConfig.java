@@ -1,5 +1,6 @@
 package com.vlad.todo.config;
 
+import com.vlad.todo.dto.KeysetPage;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +14,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:8081")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(KeysetPage.NEXT_CURSOR_HEADER)
                 .allowCredentials(true);
     }
 }
@@ -1,17 +1,27 @@
 package com.vlad.todo.controller;
 
 import com.vlad.todo.dto.*;
+import com.vlad.todo.exception.ServiceUnavailableException;
+import com.vlad.todo.model.ErrorResponse;
 import com.vlad.todo.model.User;
 import com.vlad.todo.repository.UserRepository;
 import com.vlad.todo.security.JwtProvider;
+import com.vlad.todo.security.PasswordHasher;
+import com.vlad.todo.security.TokenClaims;
+import com.vlad.todo.security.TokenDenyList;
 import com.vlad.todo.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @RestController
 @CrossOrigin(origins = "http://localhost:8081")
 @RequestMapping("/auth")
@@ -20,9 +30,10 @@ public class AuthController {
 
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtProvider jwtProvider;
     private final UserService userService;
+    private final TokenDenyList tokenDenyList;
 
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     @ExceptionHandler(RuntimeException.class)
@@ -30,21 +41,59 @@ public class AuthController {
         return Map.of("message", ex.getMessage());
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleOverload(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
     @PostMapping("/register")
     public UserDtoResponse register(@RequestBody UserDtoRequest userDtoRequest) {
         return userService.save(userDtoRequest);
     }
 
     @PostMapping("/login")
-    public AuthResponse login(@RequestBody AuthRequest request) {
+    public CompletableFuture<AuthResponse> login(@RequestBody AuthRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid password");
+        // the request thread is released while BCrypt runs on the hashing pool
+        return passwordHasher.matchesAsync(request.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new RuntimeException("Invalid password");
+                    }
+                    if (passwordHasher.needsRehash(user.getPassword())) {
+                        rehash(user, request.getPassword());
+                    }
+                    String token = jwtProvider.generateToken(
+                            user.getId(), user.getEmail(), user.getRole().name());
+                    return new AuthResponse(token);
+                });
+    }
+
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHasher.encodeAsync(rawPassword)
+                    .thenAccept(newHash ->
+                            userService.replacePasswordHash(user.getId(), user.getPassword(), newHash))
+                    .exceptionally(ex -> {
+                        log.warn("Password rehash for user {} failed: {}", user.getId(), ex.getMessage());
+                        return null;
+                    });
+        } catch (ServiceUnavailableException ex) {
+            // the hashing pool is busy; the next login tries again
+            log.warn("Password rehash for user {} skipped: {}", user.getId(), ex.getMessage());
         }
+    }
 
-        String token = jwtProvider.generateToken(user.getEmail(), user.getRole().name());
-        return new AuthResponse(token);
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(HttpServletRequest request) {
+        Object claims = request.getAttribute(TokenClaims.REQUEST_ATTRIBUTE);
+        if (claims instanceof TokenClaims tokenClaims) {
+            tokenDenyList.revoke(tokenClaims);
+        }
     }
 }
\ No newline at end of file
@@ -26,10 +26,15 @@ public class GroupController {
     private final GroupService groupService;
 
     @Operation(summary = "Получить все группы",
-            description = "ADMIN — все группы, USER — только группы, в которых он состоит")
+            description = "ADMIN — все группы, USER — только группы, в которых он состоит. "
+                    + "Постранично: курсор следующей страницы приходит в заголовке X-Next-Cursor")
     @GetMapping
-    public ResponseEntity<List<GroupDtoResponse>> getAllGroups() {
-        return ResponseEntity.ok(groupService.findAll());
+    public ResponseEntity<List<GroupDtoResponse>> getAllGroups(
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы, от 1 до 500 (по умолчанию 50)")
+            @RequestParam(required = false) Integer limit) {
+        return groupService.findAll(after, limit).toResponse();
     }
 
     @Operation(summary = "Получить группу по ID",
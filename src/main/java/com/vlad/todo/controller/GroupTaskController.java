@@ -37,13 +37,21 @@ public class GroupTaskController {
     }
 
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<GroupTaskDtoResponse>> findByGroup(@PathVariable Long groupId) {
-        return ResponseEntity.ok(groupTaskService.findByGroup(groupId));
+    public ResponseEntity<List<GroupTaskDtoResponse>> findByGroup(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return groupTaskService.findByGroup(groupId, after, limit).toResponse();
     }
 
     @GetMapping("/assigned/{userId}")
-    public ResponseEntity<List<GroupTaskDtoResponse>> findByAssignedUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(groupTaskService.findByAssignedUser(userId));
+    public ResponseEntity<List<GroupTaskDtoResponse>> findByAssignedUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return groupTaskService.findByAssignedUser(userId, after, limit).toResponse();
     }
 
     @DeleteMapping("/{id}")
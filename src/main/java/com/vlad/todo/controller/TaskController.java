@@ -1,8 +1,12 @@
 package com.vlad.todo.controller;
 
+import com.vlad.todo.dto.TaskBatchResult;
+import com.vlad.todo.dto.TaskBatchUpdate;
 import com.vlad.todo.dto.TaskDtoRequest;
 import com.vlad.todo.dto.TaskDtoResponse;
+import com.vlad.todo.dto.TaskFilter;
 import com.vlad.todo.exception.InvalidInputException;
+import com.vlad.todo.service.TaskBatchService;
 import com.vlad.todo.service.TaskService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +17,7 @@ import jakarta.validation.Valid;
 
 import java.util.List;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,10 +37,12 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBatchService taskBatchService) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
     }
 
     @Operation(
@@ -43,39 +50,46 @@ public class TaskController {
             description = """
                     • USER — получает только свои задачи  
                     • ADMIN — получает все задачи  
-                    Можно фильтровать по completed=true|false
+                    Фильтры: completed, important, диапазон дедлайнов deadlineFrom..deadlineTo,
+                    userId (USER — только свой).  
+                    Список отдаётся страницами: курсор следующей страницы приходит
+                    в заголовке X-Next-Cursor и передаётся в параметре after.
                     """
     )
     @GetMapping
     public ResponseEntity<List<TaskDtoResponse>> getTasks(
-            @Parameter(description = "Статус завершения (true/false). Необязательно.")
-            @RequestParam(required = false) Boolean completed
+            @ParameterObject TaskFilter filter,
+            @Parameter(description = "Порядок: id (по умолчанию) или deadline")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы, от 1 до 500 (по умолчанию 50)")
+            @RequestParam(required = false) Integer limit
     ) {
-        List<TaskDtoResponse> tasks = taskService.findAllTasks();
-
-        if (completed != null) {
-            tasks = tasks.stream()
-                    .filter(t -> t.getIsCompleted() != null && t.getIsCompleted().equals(completed))
-                    .toList();
-        }
-
-        return ResponseEntity.ok(tasks);
+        return taskService.findAllTasks(filter, isDeadlineOrder(sort), after, limit).toResponse();
     }
 
     @Operation(
             summary = "Получить задачи пользователя",
             description = """
                     • USER — может указывать только СВОЙ userId  
-                    • ADMIN — может указывать любой userId
+                    • ADMIN — может указывать любой userId  
+                    Постраничная выдача, как у списка задач.
                     """
     )
     @GetMapping("/by-user/{userId}")
     public ResponseEntity<List<TaskDtoResponse>> getTasksByUser(
-            @Parameter(description = "ID пользователя") @PathVariable long userId
+            @Parameter(description = "ID пользователя") @PathVariable long userId,
+            @Parameter(description = "Порядок: id (по умолчанию) или deadline")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Курсор из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы, от 1 до 500 (по умолчанию 50)")
+            @RequestParam(required = false) Integer limit
     ) {
         if (userId < 1) throw new InvalidInputException("Id должен быть больше 0");
 
-        return ResponseEntity.ok(taskService.findTasksByUser(userId));
+        return taskService.findTasksByUser(userId, isDeadlineOrder(sort), after, limit).toResponse();
     }
 
     @Operation(
@@ -143,4 +157,45 @@ public class TaskController {
         taskService.deleteTaskById(id);
         return ResponseEntity.ok().build();
     }
+
+    @Operation(
+            summary = "Создать задачи пакетом",
+            description = """
+                    До 500 задач за запрос в одной транзакции. Права те же, что у POST /tasks.  
+                    Для каждого элемента возвращается созданная задача или ошибка.
+                    """
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> createTasks(@RequestBody List<TaskDtoRequest> tasks) {
+        return ResponseEntity.ok(taskBatchService.create(tasks));
+    }
+
+    @Operation(
+            summary = "Обновить задачи пакетом",
+            description = """
+                    До 500 изменений за запрос в одной транзакции; незаданные поля не меняются.  
+                    Для каждого элемента возвращается обновлённая задача или ошибка.
+                    """
+    )
+    @PutMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> updateTasks(@RequestBody List<TaskBatchUpdate> updates) {
+        return ResponseEntity.ok(taskBatchService.update(updates));
+    }
+
+    @Operation(
+            summary = "Удалить задачи пакетом",
+            description = "До 500 ID задач за запрос в одной транзакции. Для каждого ID возвращается результат."
+    )
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> deleteTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskBatchService.delete(ids));
+    }
+
+    private static boolean isDeadlineOrder(String sort) {
+        return switch (sort) {
+            case "id" -> false;
+            case "deadline" -> true;
+            default -> throw new InvalidInputException("Сортировка возможна только по id или deadline");
+        };
+    }
 }
@@ -2,8 +2,10 @@ package com.vlad.todo.controller;
 
 import com.vlad.todo.dto.UserDtoRequest;
 import com.vlad.todo.dto.UserDtoResponse;
-import com.vlad.todo.model.Role;
+import com.vlad.todo.dto.UserImportResult;
+import com.vlad.todo.security.CurrentUser;
 import com.vlad.todo.service.GroupService;
+import com.vlad.todo.service.UserImportService;
 import com.vlad.todo.service.UserService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,7 +15,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,17 +29,24 @@ public class UserController {
 
     private final UserService userService;
     private final GroupService groupService;
+    private final UserImportService userImportService;
+    private final CurrentUser currentUser;
 
     @Autowired
-    public UserController(UserService userService, GroupService groupService) {
+    public UserController(UserService userService, GroupService groupService,
+                          UserImportService userImportService, CurrentUser currentUser) {
         this.userService = userService;
         this.groupService = groupService;
+        this.userImportService = userImportService;
+        this.currentUser = currentUser;
     }
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<UserDtoResponse>> allUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<List<UserDtoResponse>> allUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return userService.findAll(after, limit).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -81,10 +89,7 @@ public class UserController {
     public ResponseEntity<UserDtoResponse> updateUser(@PathVariable long id,
                                                       @RequestBody UserDtoRequest userDtoRequest) {
 
-        String currentEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        UserDtoResponse currentUser = userService.findByEmail(currentEmail);
-
-        if (!currentUser.getRole().equals(Role.ADMIN) && currentUser.getId() != id) {
+        if (!currentUser.isAdmin() && currentUser.getId() != id) {
             return ResponseEntity.status(403).build();
         }
 
@@ -108,8 +113,10 @@ public class UserController {
 
     @PostMapping("/saveAll")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserDtoResponse>> saveAllUsers(
+    public ResponseEntity<UserImportResult> saveAllUsers(
             @Valid @RequestBody List<UserDtoRequest> userDtoRequests) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(userService.saveAll(userDtoRequests));
+        UserImportResult result = userImportService.importUsers(userDtoRequests);
+        HttpStatus status = result.getCreated().isEmpty() ? HttpStatus.OK : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(result);
     }
 }
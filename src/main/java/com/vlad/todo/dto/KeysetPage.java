@@ -0,0 +1,55 @@
+package com.vlad.todo.dto;
+
+import com.vlad.todo.exception.InvalidInputException;
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * One page of a listing plus the cursor of the next page, or null on the
+ * last page. The body stays a plain JSON array; the cursor travels in the
+ * {@value #NEXT_CURSOR_HEADER} response header.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1 || requested > MAX_LIMIT) {
+            throw new InvalidInputException("Размер страницы должен быть от 1 до " + MAX_LIMIT);
+        }
+        return requested;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@code limit + 1}; the extra row
+     * only tells that another page follows.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<? super T, PageCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(List.copyOf(rows), null);
+        }
+        List<T> items = List.copyOf(rows.subList(0, limit));
+        return new KeysetPage<>(items, cursorOf.apply(items.get(limit - 1)).encode());
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,94 @@
+package com.vlad.todo.dto;
+
+import com.vlad.todo.exception.InvalidInputException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import lombok.Getter;
+
+/**
+ * Position in a keyset-paginated listing, handed to clients as an opaque
+ * string. Listings ordered by id resume after {@code id}. Listings ordered by
+ * deadline resume after ({@code deadline}, {@code id}) and, once the rows with
+ * a deadline are exhausted, after {@code id} among the rows without one.
+ */
+@Getter
+public final class PageCursor {
+
+    private static final char BY_ID = 'i';
+    private static final char BY_DEADLINE = 'd';
+    private static final char NO_DEADLINE = 'n';
+    private static final String INVALID = "Некорректный курсор страницы";
+
+    private final char kind;
+    private final LocalDate deadline;
+    private final long id;
+
+    private PageCursor(char kind, LocalDate deadline, long id) {
+        this.kind = kind;
+        this.deadline = deadline;
+        this.id = id;
+    }
+
+    public static PageCursor afterId(long id) {
+        return new PageCursor(BY_ID, null, id);
+    }
+
+    /** Cursor after a row of a deadline-ordered listing; {@code deadline} may be null. */
+    public static PageCursor afterDeadline(LocalDate deadline, long id) {
+        return deadline == null
+                ? new PageCursor(NO_DEADLINE, null, id)
+                : new PageCursor(BY_DEADLINE, deadline, id);
+    }
+
+    public boolean isById() {
+        return kind == BY_ID;
+    }
+
+    /** Whether the listing is still in the part ordered by a non-null deadline. */
+    public boolean isWithDeadline() {
+        return kind == BY_DEADLINE;
+    }
+
+    public String encode() {
+        String raw = deadline == null ? kind + ":" + id : kind + ":" + deadline + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the cursor, or null for a missing or blank value (first page)
+     * @throws InvalidInputException if the value is not a cursor issued by us
+     */
+    public static PageCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value.trim()),
+                    StandardCharsets.UTF_8).split(":");
+            if (parts.length == 2 && (parts[0].equals("i") || parts[0].equals("n"))) {
+                return new PageCursor(parts[0].charAt(0), null, Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && parts[0].equals("d")) {
+                return new PageCursor(BY_DEADLINE, LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // falls through to the common error below
+        }
+        throw new InvalidInputException(INVALID);
+    }
+
+    /** Decodes a cursor of an id-ordered listing; the first page starts after id 0. */
+    public static long decodeId(String value) {
+        PageCursor cursor = decode(value);
+        if (cursor == null) {
+            return 0;
+        }
+        if (!cursor.isById()) {
+            throw new InvalidInputException(INVALID);
+        }
+        return cursor.id;
+    }
+}
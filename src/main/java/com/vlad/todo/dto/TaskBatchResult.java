@@ -0,0 +1,26 @@
+package com.vlad.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Outcome of one item of a batch: the task on success, the error otherwise. */
+@Getter
+@AllArgsConstructor
+public class TaskBatchResult {
+    private int index; // position of the item in the request
+    private Long id;
+    private TaskDtoResponse task;
+    private String error;
+
+    public static TaskBatchResult ok(int index, TaskDtoResponse task) {
+        return new TaskBatchResult(index, task.getId(), task, null);
+    }
+
+    public static TaskBatchResult deleted(int index, long id) {
+        return new TaskBatchResult(index, id, null, null);
+    }
+
+    public static TaskBatchResult failed(int index, Long id, String error) {
+        return new TaskBatchResult(index, id, null, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.vlad.todo.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import lombok.Data;
+
+/** One change of a batch update; fields left null keep their value. */
+@Data
+public class TaskBatchUpdate {
+    @NotNull(message = "Id задачи должен быть указан")
+    @Min(value = 1, message = "Id не может быть меньше 1")
+    private Long id;
+
+    @Size(max = 50, message = "Длина заголовка слишком большая")
+    private String title;
+    private String content;
+    private Boolean isCompleted;
+    private LocalDate deadlineDate;
+    private Boolean isImportant;
+    private Long userId; // only ADMIN can move a task to another user
+}
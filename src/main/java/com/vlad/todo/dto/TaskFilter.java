@@ -0,0 +1,33 @@
+package com.vlad.todo.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import java.time.LocalDate;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/** Optional conditions of a task listing; unset fields do not restrict it. */
+@Data
+public class TaskFilter {
+
+    @Parameter(description = "Статус завершения (true/false)")
+    private Boolean completed;
+
+    @Parameter(description = "Важность (true/false)")
+    private Boolean important;
+
+    @Parameter(description = "Дедлайн не раньше даты (yyyy-MM-dd)")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineFrom;
+
+    @Parameter(description = "Дедлайн не позже даты (yyyy-MM-dd)")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate deadlineTo;
+
+    @Parameter(description = "ID владельца. USER может указать только свой")
+    private Long userId;
+
+    public boolean isEmpty() {
+        return completed == null && important == null && deadlineFrom == null
+                && deadlineTo == null && userId == null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.vlad.todo.dto;
 
 
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 
@@ -10,7 +12,9 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 public class UserDtoRequest {
+    @Email(message = "Некорректный формат почты")
     private String email;
+    @Size(min = 6, max = 72, message = "Длина пароля должна быть от 6 до 72 символов")
     private String password;
     private String firstName;
     private String lastName;
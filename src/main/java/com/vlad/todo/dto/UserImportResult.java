@@ -0,0 +1,21 @@
+package com.vlad.todo.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Outcome of a bulk import: the users created and the rows that were not. */
+@Getter
+@AllArgsConstructor
+public class UserImportResult {
+    private List<UserDtoResponse> created;
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private int index; // position of the row in the request
+        private String email;
+        private String message;
+    }
+}
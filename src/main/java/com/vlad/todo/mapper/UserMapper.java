@@ -3,19 +3,19 @@ package com.vlad.todo.mapper;
 
 import com.vlad.todo.dto.*;
 import com.vlad.todo.model.*;
+import com.vlad.todo.security.PasswordHasher;
 import org.springframework.stereotype.Component;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Component
 public class UserMapper {
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
-    public UserMapper(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
+    public UserMapper(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
     }
 
     public String encodePassword(String password) {
-        return passwordEncoder.encode(password);
+        return passwordHasher.encode(password);
     }
 
 
@@ -31,9 +31,14 @@ public class UserMapper {
     }
 
     public User toEntity(UserDtoRequest dto) {
+        return toEntity(dto, encodePassword(dto.getPassword()));
+    }
+
+    /** Builds the entity with a password that is already hashed. */
+    public User toEntity(UserDtoRequest dto, String encodedPassword) {
         return User.builder()
                 .email(dto.getEmail())
-                .password(encodePassword(dto.getPassword()))
+                .password(encodedPassword)
                 .firstName(dto.getFirstName())
                 .lastName(dto.getLastName())
                 .phone(dto.getPhone())
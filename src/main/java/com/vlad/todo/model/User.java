@@ -14,8 +14,10 @@ import java.util.*;
 @Table(name = "users")
 public class User {
 
+    // pooled sequence: Hibernate reserves 50 ids per round trip and can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
 
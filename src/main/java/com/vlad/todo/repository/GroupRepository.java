@@ -1,8 +1,15 @@
 package com.vlad.todo.repository;
 
 import com.vlad.todo.model.Group;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findById(long id);
@@ -10,4 +17,19 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByName(String name);
 
     void deleteById(long id);
+
+    @Query("SELECT g.id FROM Group g JOIN g.users u WHERE u.id = :userId")
+    Set<Long> findIdsByUserId(@Param("userId") long userId);
+
+    // Pages are read as ids first: a fetch join of the users collection
+    // cannot be limited in SQL, so the groups are loaded by id afterwards.
+
+    @Query("SELECT g.id FROM Group g WHERE g.id > :afterId ORDER BY g.id")
+    List<Long> findPageIds(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT g.id FROM Group g JOIN g.users u WHERE u.id = :userId AND g.id > :afterId ORDER BY g.id")
+    List<Long> findPageIdsByMember(@Param("userId") long userId, @Param("afterId") long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "users")
+    List<Group> findWithUsersByIdInOrderByIdAsc(Collection<Long> ids);
 }
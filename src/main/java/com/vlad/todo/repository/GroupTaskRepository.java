@@ -2,13 +2,19 @@ package com.vlad.todo.repository;
 
 import com.vlad.todo.model.GroupTask;
 import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GroupTaskRepository extends JpaRepository<GroupTask, Long> {
 
-    List<GroupTask> findByGroupId(Long groupId);
+    // the mapper reads the assignee's name, so it is joined in rather than loaded per row
 
-    List<GroupTask> findByAssignedUserId(Long userId);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "assignedUser")
+    List<GroupTask> findByGroupIdAndIdGreaterThanOrderByIdAsc(Long groupId, long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "assignedUser")
+    List<GroupTask> findByAssignedUserIdAndIdGreaterThanOrderByIdAsc(Long userId, long afterId, Limit limit);
+}
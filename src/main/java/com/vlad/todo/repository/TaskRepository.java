@@ -1,13 +1,9 @@
 package com.vlad.todo.repository;
 
 import com.vlad.todo.model.Task;
-import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId")
-    List<Task> findByUserId(long userId);
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
 }
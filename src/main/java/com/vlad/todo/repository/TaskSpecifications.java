@@ -0,0 +1,63 @@
+package com.vlad.todo.repository;
+
+import com.vlad.todo.dto.TaskFilter;
+import com.vlad.todo.model.Task;
+import java.time.LocalDate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicates for task listings. Only the conditions that are actually set
+ * end up in the SQL, so the planner sees plain equality and range terms it
+ * can match against the composite indexes on {@code tasks}.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matching(TaskFilter filter) {
+        Specification<Task> spec = Specification.where(null);
+        if (filter.getUserId() != null) {
+            spec = spec.and(ownedBy(filter.getUserId()));
+        }
+        if (filter.getCompleted() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("isCompleted"), filter.getCompleted()));
+        }
+        if (filter.getImportant() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("isImportant"), filter.getImportant()));
+        }
+        if (filter.getDeadlineFrom() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.greaterThanOrEqualTo(root.get("deadlineDate"), filter.getDeadlineFrom()));
+        }
+        if (filter.getDeadlineTo() != null) {
+            spec = spec.and((root, query, cb) ->
+                    cb.lessThanOrEqualTo(root.get("deadlineDate"), filter.getDeadlineTo()));
+        }
+        return spec;
+    }
+
+    public static Specification<Task> ownedBy(long userId) {
+        // compares the foreign key column; no join to users
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Task> idAfter(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Task> hasDeadline() {
+        return (root, query, cb) -> cb.isNotNull(root.get("deadlineDate"));
+    }
+
+    public static Specification<Task> hasNoDeadline() {
+        return (root, query, cb) -> cb.isNull(root.get("deadlineDate"));
+    }
+
+    /** Rows after ({@code deadline}, {@code id}) in deadline, id order. */
+    public static Specification<Task> deadlineAfter(LocalDate deadline, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("deadlineDate"), deadline),
+                cb.and(cb.equal(root.get("deadlineDate"), deadline), cb.greaterThan(root.get("id"), id)));
+    }
+}
@@ -1,9 +1,13 @@
 package com.vlad.todo.repository;
 
 import com.vlad.todo.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -17,11 +21,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByPhone(String phone);
 
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.phone FROM User u WHERE u.phone IN :phones")
+    Set<String> findExistingPhones(@Param("phones") Collection<String> phones);
+
     void deleteById(long id);
 
+    List<User> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
     @Query("SELECT u FROM User u JOIN u.groups g WHERE g.name = :groupName")
     List<User> findUsersByGroupName(@Param("groupName") String groupName);
 
+    /** Replaces a password hash only if it was not changed in the meantime. */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") long id, @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
+
 
 
 }
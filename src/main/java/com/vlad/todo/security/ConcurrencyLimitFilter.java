@@ -0,0 +1,166 @@
+package com.vlad.todo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.todo.config.ConcurrencyLimitProperties;
+import com.vlad.todo.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds requests with {@code 503} once the adaptive concurrency limit of their lane is reached.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String OVERLOADED = "Сервер перегружен, повторите попытку позже";
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final GradientConcurrencyLimit limit;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Lane defaultLane;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private static final class Lane {
+        final String name;
+        final String pattern;
+        final String method;
+        final double share;
+        Counter rejected;
+
+        Lane(String name, String pattern, String method, double share) {
+            this.name = name;
+            this.pattern = pattern;
+            this.method = method;
+            this.share = share;
+        }
+    }
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limit = new GradientConcurrencyLimit(properties.getInitialLimit(),
+                properties.getMinLimit(), properties.getMaxLimit(), properties.getTolerance());
+        for (ConcurrencyLimitProperties.Lane lane : properties.getLanes()) {
+            String method = lane.getMethod() == null || lane.getMethod().isBlank()
+                    ? null : lane.getMethod();
+            String name = method == null ? lane.getPattern() : method + " " + lane.getPattern();
+            lanes.add(new Lane(name, lane.getPattern(), method, lane.getShare()));
+        }
+        this.defaultLane = new Lane("default", null, null, properties.getDefaultShare());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Lane lane = laneFor(request);
+        int allowed = Math.max(1, (int) (limit.limit() * lane.share));
+        int current = inFlight.incrementAndGet();
+        if (current > allowed) {
+            inFlight.decrementAndGet();
+            if (lane.rejected != null) {
+                lane.rejected.increment();
+            }
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.onSample(System.nanoTime() - start, inFlight.getAndDecrement());
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // asynchronous handlers hold their slot until the response is complete
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release.run();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.concurrency.limit", limit, GradientConcurrencyLimit::limit)
+                .description("Current adaptive limit of requests in progress")
+                .register(registry);
+        Gauge.builder("http.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Requests in progress behind the concurrency limiter")
+                .register(registry);
+        List<Lane> all = new ArrayList<>(lanes);
+        all.add(defaultLane);
+        for (Lane lane : all) {
+            lane.rejected = Counter.builder("http.concurrency.rejected")
+                    .description("Requests shed by the concurrency limiter")
+                    .tag("lane", lane.name)
+                    .register(registry);
+        }
+    }
+
+    private Lane laneFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Lane lane : lanes) {
+            if ((lane.method == null || lane.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(lane.pattern, path)) {
+                return lane;
+            }
+        }
+        return defaultLane;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), OVERLOADED));
+    }
+}
@@ -0,0 +1,63 @@
+package com.vlad.todo.security;
+
+import com.vlad.todo.exception.InvalidInputException;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.repository.GroupRepository;
+import java.util.Set;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Identity of the user behind the current request. Id, email and role come
+ * from the principal that {@link JwtFilter} put into the security context,
+ * so they cost no query; group ids are loaded on first use and kept for the
+ * rest of the request.
+ */
+@Component
+@RequestScope
+public class CurrentUser {
+
+    private final GroupRepository groupRepository;
+    private CustomUserDetails principal;
+    private Set<Long> groupIds;
+
+    public CurrentUser(GroupRepository groupRepository) {
+        this.groupRepository = groupRepository;
+    }
+
+    public long getId() {
+        return principal().getId();
+    }
+
+    public String getEmail() {
+        return principal().getUsername();
+    }
+
+    public boolean isAdmin() {
+        return principal().getRole() == Role.ADMIN;
+    }
+
+    public Set<Long> getGroupIds() {
+        if (groupIds == null) {
+            groupIds = Set.copyOf(groupRepository.findIdsByUserId(getId()));
+        }
+        return groupIds;
+    }
+
+    public boolean isMemberOf(long groupId) {
+        return getGroupIds().contains(groupId);
+    }
+
+    private CustomUserDetails principal() {
+        if (principal == null) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || !(auth.getPrincipal() instanceof CustomUserDetails details)) {
+                throw new InvalidInputException("Пользователь не аутентифицирован");
+            }
+            principal = details;
+        }
+        return principal;
+    }
+}
@@ -1,6 +1,7 @@
 package com.vlad.todo.security;
 
 
+import com.vlad.todo.model.Role;
 import com.vlad.todo.model.User;
 import org.springframework.security.core.*;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,6 +17,24 @@ public class CustomUserDetails implements UserDetails {
         this.user = user;
     }
 
+    /**
+     * Copy that keeps only what authentication needs and no longer refers to
+     * the managed entity, so it can outlive the persistence context.
+     */
+    public CustomUserDetails detached() {
+        return new CustomUserDetails(User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .build());
+    }
+
+    public Long getId() { return user.getId(); }
+
+
+    public Role getRole() { return user.getRole(); }
+
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
@@ -0,0 +1,75 @@
+package com.vlad.todo.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows request latency, after the gradient
+ * algorithm of Netflix concurrency-limits.
+ */
+final class GradientConcurrencyLimit {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_TERM_WEIGHT = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile int maxInFlightInWindow;
+    private volatile double limit;
+    private double longTermRtt;
+
+    GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    void onSample(long rttNanos, int inFlight) {
+        windowRttSum.add(rttNanos);
+        windowSamples.increment();
+        if (inFlight > maxInFlightInWindow) {
+            maxInFlightInWindow = inFlight;
+        }
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= WINDOW_NANOS && windowSamples.sum() >= MIN_WINDOW_SAMPLES
+                && windowStart.compareAndSet(start, now)) {
+            long samples = windowSamples.sumThenReset();
+            long sum = windowRttSum.sumThenReset();
+            int peak = maxInFlightInWindow;
+            maxInFlightInWindow = 0;
+            update((double) sum / Math.max(1, samples), peak);
+        }
+    }
+
+    private synchronized void update(double shortTermRtt, int peakInFlight) {
+        if (longTermRtt == 0) {
+            longTermRtt = shortTermRtt;
+            return;
+        }
+        longTermRtt += (shortTermRtt - longTermRtt) * LONG_TERM_WEIGHT;
+        if (longTermRtt / shortTermRtt > 2) {
+            // latency recovered: pull the baseline down faster than the average would
+            longTermRtt *= 0.95;
+        }
+        double current = limit;
+        if (peakInFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longTermRtt / shortTermRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -1,11 +1,16 @@
 package com.vlad.todo.security;
 
 
+import com.vlad.todo.config.JwtProperties;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.User;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,6 +25,9 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenDenyList tokenDenyList;
+    private final JwtProperties jwtProperties;
 
 
     @Override
@@ -33,11 +41,27 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
 
-            String email = jwtProvider.getEmail(token);
+            TokenClaims claims;
+            try {
+                claims = jwtProvider.parse(token);
+            } catch (JwtException | IllegalArgumentException ex) {
+                // an invalid token leaves the request unauthenticated
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (tokenDenyList.isRevoked(claims)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            request.setAttribute(TokenClaims.REQUEST_ATTRIBUTE, claims);
+            String email = claims.getSubject();
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
 
-                var userDetails = userDetailsService.loadUserByUsername(email);
+                UserDetails userDetails = jwtProperties.isStateless() && claims.getUserId() != null
+                        ? principalFromClaims(claims)
+                        : principalCache.get(email, claims.getExpiresAt(),
+                                userDetailsService::loadUserByUsername);
 
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -53,4 +77,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+
+    private static UserDetails principalFromClaims(TokenClaims claims) {
+        return new CustomUserDetails(User.builder()
+                .id(claims.getUserId())
+                .email(claims.getSubject())
+                .role(Role.valueOf(claims.getRole()))
+                .build());
+    }
+}
@@ -1,42 +1,88 @@
 package com.vlad.todo.security;
 
 
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuSpringCache;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
+import java.security.Key;
 import java.util.Date;
-import javax.crypto.SecretKey;
+import java.util.UUID;
 
 
 @Component
 public class JwtProvider {
 
-    private final SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private final long EXPIRATION = 1000 * 60 * 60; // 1 hour
+    public static final String TOKENS_CACHE = "tokens";
 
-    public String generateToken(String email, String role) {
+    static final long EXPIRATION = 1000 * 60 * 60; // 1 hour
+    // "iat" has second precision; revocation by subject needs the exact issue time
+    static final String ISSUED_AT_MILLIS = "iat_ms";
+    private final SigningKeyRing keyRing;
+    private final JwtParser parser;
+    private final LfuSpringCache verifiedTokens;
+
+    public JwtProvider(SigningKeyRing keyRing, LfuCacheManager cacheManager) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyRing.keyFor(header.getKeyId());
+                    }
+                })
+                .build();
+        this.verifiedTokens = cacheManager.getLfuCache(TOKENS_CACHE);
+    }
+
+    public String generateToken(long userId, String email, String role) {
+        SigningKeyRing.SigningKey signingKey = keyRing.current();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(key)
+                .claim("uid", userId)
+                .claim(ISSUED_AT_MILLIS, now)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION))
+                .signWith(signingKey.getKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
 
+    /**
+     * Verifies the signature and expiry of a token and returns its claims.
+     * Recently verified tokens are answered from a small cache until they
+     * expire; invalid tokens are never cached.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public TokenClaims parse(String token) {
+        TokenClaims cached = verifiedTokens.get(token, TokenClaims.class);
+        if (cached != null && cached.getExpiresAt() > System.currentTimeMillis()) {
+            return cached;
+        }
+        Claims body = parser.parseClaimsJws(token).getBody();
+        Number userId = body.get("uid", Number.class);
+        Number issuedAtMillis = body.get(ISSUED_AT_MILLIS, Number.class);
+        long issuedAt = issuedAtMillis != null ? issuedAtMillis.longValue()
+                : body.getIssuedAt() == null ? 0 : body.getIssuedAt().getTime();
+        TokenClaims claims = new TokenClaims(body.getSubject(), body.get("role", String.class),
+                userId == null ? null : userId.longValue(), body.getId(),
+                issuedAt, body.getExpiration().getTime());
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+
     public String getEmail(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parse(token).getSubject();
     }
 
 
     public String getRole(String token) {
-        return (String) Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role");
+        return parse(token).getRole();
     }
 }
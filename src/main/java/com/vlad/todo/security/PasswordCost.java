@@ -0,0 +1,69 @@
+package com.vlad.todo.security;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt cost factor calibrated for this node.
+ */
+@Slf4j
+@Getter
+public final class PasswordCost {
+
+    private static final String SAMPLE = "calibration-sample-password";
+    // default cost of BCryptPasswordEncoder
+    private static final int RECOMMENDED_STRENGTH = 10;
+
+    private final int strength;
+    private final long hashNanos;
+
+    PasswordCost(int strength, long hashNanos) {
+        this.strength = strength;
+        this.hashNanos = hashNanos;
+    }
+
+    public static PasswordCost calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+        long target = targetHashTime.toNanos();
+        int strength = minStrength;
+        long hashNanos = measure(strength);
+        while (strength < maxStrength && hashNanos * 2 <= target) {
+            strength++;
+            hashNanos = measure(strength);
+        }
+        if (strength < RECOMMENDED_STRENGTH) {
+            log.warn("BCrypt cost {} selected, below the recommended {}: hash takes {} ms",
+                    strength, RECOMMENDED_STRENGTH, hashNanos / 1_000_000);
+        } else {
+            log.info("BCrypt cost {} selected, hash takes {} ms", strength, hashNanos / 1_000_000);
+        }
+        return new PasswordCost(strength, hashNanos);
+    }
+
+    /** Cost factor of a stored hash, or -1 if it is not a BCrypt hash. */
+    static int strengthOf(String encodedPassword) {
+        // $2a$10$...
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        // the first run includes class loading and JIT warm-up
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
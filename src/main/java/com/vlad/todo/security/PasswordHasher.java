@@ -0,0 +1,112 @@
+package com.vlad.todo.security;
+
+import com.vlad.todo.exception.ServiceUnavailableException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs BCrypt on a small dedicated pool and rejects callers when it is full.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    static final String OVERLOADED = "Сервер перегружен, повторите попытку позже";
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int QUEUE_SIZE = 32;
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordCost passwordCost;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordCost passwordCost) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordCost = passwordCost;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a stored hash was made with a lower cost than this node uses.
+     * Nodes calibrate independently, so hashes made by a faster node are kept
+     * instead of being rewritten back and forth on every login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int strength = PasswordCost.strengthOf(encodedPassword);
+        return strength != -1 && strength < passwordCost.getStrength();
+    }
+
+    /** Hashes on the pool and waits for the result. */
+    public String encode(String rawPassword) {
+        return join(encodeAsync(rawPassword));
+    }
+
+    /**
+     * Hashes a batch in parallel. At most one task per pool thread is in
+     * flight, so the queue keeps room for logins; if the pool is full anyway,
+     * the calling thread hashes that password itself instead of failing.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        Semaphore inFlight = new Semaphore(THREADS);
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<String> hash;
+            try {
+                hash = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+            } catch (RejectedExecutionException ex) {
+                hash = CompletableFuture.completedFuture(passwordEncoder.encode(rawPassword));
+            }
+            hash.whenComplete((encoded, error) -> inFlight.release());
+            hashes.add(hash);
+        }
+        return hashes.stream().map(PasswordHasher::join).toList();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceUnavailableException(OVERLOADED);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
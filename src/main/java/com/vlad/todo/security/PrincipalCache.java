@@ -0,0 +1,62 @@
+package com.vlad.todo.security;
+
+import com.vlad.todo.cache.KeyGenerations;
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuSpringCache;
+import com.vlad.todo.model.User;
+import java.util.function.Function;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticated principals by email, each kept until its token expires.
+ */
+@Component
+public class PrincipalCache {
+
+    public static final String CACHE_NAME = "principals";
+
+    private final LfuSpringCache cache;
+    private final KeyGenerations generations = new KeyGenerations();
+
+    private static final class Principal {
+        final UserDetails userDetails;
+        final long expiresAt;
+
+        Principal(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public PrincipalCache(LfuCacheManager cacheManager) {
+        this.cache = cacheManager.getLfuCache(CACHE_NAME);
+    }
+
+    /**
+     * @param tokenExpiresAt expiry of the presented token in epoch millis
+     */
+    public UserDetails get(String email, long tokenExpiresAt,
+                           Function<String, UserDetails> loader) {
+        Principal cached = cache.get(email, Principal.class);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt > now) {
+            return cached.userDetails;
+        }
+        long observed = generations.current(email);
+        UserDetails userDetails = loader.apply(email);
+        if (userDetails instanceof CustomUserDetails details) {
+            userDetails = details.detached();
+        }
+        cache.put(email, new Principal(userDetails, tokenExpiresAt));
+        if (generations.changedSince(email, observed)) {
+            cache.evict(email);
+        }
+        return userDetails;
+    }
+
+    public void evict(User user) {
+        String email = user.getEmail();
+        generations.invalidate(email, () -> cache.evict(email));
+    }
+}
@@ -0,0 +1,168 @@
+package com.vlad.todo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.todo.config.RateLimitProperties;
+import com.vlad.todo.model.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Token-bucket limits per route rule, keyed by token subject or client address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String TOO_MANY_REQUESTS = "Слишком много запросов, повторите попытку позже";
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<Limit> limits;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final AtomicLong untracked = new AtomicLong();
+
+    private static final class Limit {
+        final int index;
+        final String pattern;
+        /** Time after which one request's worth of capacity comes back. */
+        final long intervalNanos;
+        /** How far the arrival time may run ahead of now, i.e. the burst size. */
+        final long toleranceNanos;
+
+        Limit(int index, RateLimitProperties.Rule rule) {
+            this.index = index;
+            this.pattern = rule.getPattern();
+            this.intervalNanos = Math.max(1, rule.getPeriod().toNanos() / Math.max(1, rule.getCapacity()));
+            this.toleranceNanos = intervalNanos * Math.max(1, rule.getCapacity());
+        }
+    }
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        this.limits = IntStream.range(0, rules.size())
+                .mapToObj(i -> new Limit(i, rules.get(i)))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Limit limit = properties.isEnabled() ? limitFor(request) : null;
+        if (limit != null) {
+            long waitNanos = acquire(limit.index + ":" + clientKey(request), limit);
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("http.ratelimit.untracked", untracked, AtomicLong::get)
+                .description("Requests let through unlimited because the bucket table was full")
+                .register(registry);
+    }
+
+    long untrackedRequests() {
+        return untracked.get();
+    }
+
+    /** Drops buckets of clients that were idle long enough to be full again. */
+    @Scheduled(fixedDelay = 60_000)
+    public void expireIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+
+    /** Returns 0 if the request is admitted, otherwise the nanos until it would be. */
+    private long acquire(String key, Limit limit) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxClients()) {
+                sweepIfDue();
+                if (buckets.size() >= properties.getMaxClients()) {
+                    // still full of active clients: do not grow, and do not lock the new client out
+                    untracked.incrementAndGet();
+                    return 0;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + limit.intervalNanos;
+            long ahead = next - now;
+            if (ahead > limit.toleranceNanos) {
+                return ahead - limit.toleranceNanos;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            expireIdleBuckets();
+        }
+    }
+
+    private Limit limitFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Limit limit : limits) {
+            if (pathMatcher.match(limit.pattern, path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        // behind a proxy the container sets this from X-Forwarded-For, trusted proxies only
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), TOO_MANY_REQUESTS));
+    }
+}
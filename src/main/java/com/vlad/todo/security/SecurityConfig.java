@@ -1,6 +1,15 @@
 package com.vlad.todo.security;
 
+import com.vlad.todo.config.ConcurrencyLimitProperties;
+import com.vlad.todo.config.JwtProperties;
+import com.vlad.todo.config.PasswordProperties;
+import com.vlad.todo.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,10 +29,14 @@ import java.util.List;
 
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties({JwtProperties.class, PasswordProperties.class,
+        RateLimitProperties.class, ConcurrencyLimitProperties.class})
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -34,18 +47,44 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         // Разрешаем аутентификацию
                         .requestMatchers("/auth/**").permitAll()
+                        // метрики и управление кэшами доступны только администраторам
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Все остальные запросы требуют авторизации
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // sheds load before any token or database work is done
+                .addFilterBefore(concurrencyLimitFilter, JwtFilter.class)
+                // after the JWT filter, so authenticated clients are limited by subject
+                .addFilterAfter(rateLimitFilter, JwtFilter.class)
                 .cors(); // включаем CORS
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordCost passwordCost(PasswordProperties properties) {
+        return PasswordCost.calibrate(properties.getTargetHashTime(),
+                properties.getMinStrength(), properties.getMaxStrength());
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordCost passwordCost) {
+        return new BCryptPasswordEncoder(passwordCost.getStrength());
+    }
+
+    @Bean
+    public MeterBinder passwordCostMetrics(PasswordCost passwordCost) {
+        return registry -> {
+            Gauge.builder("security.bcrypt.cost", passwordCost, PasswordCost::getStrength)
+                    .description("BCrypt cost factor chosen at startup")
+                    .register(registry);
+            TimeGauge.builder("security.bcrypt.hash.time", passwordCost, TimeUnit.NANOSECONDS,
+                            PasswordCost::getHashNanos)
+                    .description("Hash time measured for the chosen cost")
+                    .register(registry);
+        };
     }
 
     @Bean
@@ -0,0 +1,150 @@
+package com.vlad.todo.security;
+
+import com.vlad.todo.config.JwtProperties;
+import io.jsonwebtoken.security.SignatureException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * HMAC signing keys derived per rotation period from a shared master secret,
+ * so every node verifies tokens signed by any other.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String KID_PREFIX = "p";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final byte[] masterSecret;
+    private final long rotationMillis;
+    private final long graceMillis;
+    private final Map<Long, SecretKey> keys = new ConcurrentHashMap<>();
+    private volatile SigningKey current;
+
+    /** Key used for signing together with its id. */
+    @Getter
+    public static final class SigningKey {
+        private final long period;
+        private final String kid;
+        private final SecretKey key;
+
+        SigningKey(long period, String kid, SecretKey key) {
+            this.period = period;
+            this.kid = kid;
+            this.key = key;
+        }
+    }
+
+    public SigningKeyRing(JwtProperties properties) {
+        this.masterSecret = loadSecret(properties);
+        this.rotationMillis = properties.getKeyRotation().toMillis();
+        if (rotationMillis <= 0) {
+            throw new IllegalStateException("security.jwt.key-rotation must be positive");
+        }
+        this.graceMillis = Math.max(properties.getKeyGracePeriod().toMillis(), JwtProvider.EXPIRATION);
+        rotate();
+    }
+
+    public SigningKey current() {
+        SigningKey signingKey = current;
+        if (signingKey.period != periodAt(System.currentTimeMillis())) {
+            rotate();
+            signingKey = current;
+        }
+        return signingKey;
+    }
+
+    /**
+     * Returns the verification key for a {@code kid}.
+     *
+     * @throws SignatureException if the id is unknown or its key has retired
+     */
+    public SecretKey keyFor(String kid) {
+        if (kid == null || !kid.startsWith(KID_PREFIX)) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        long period;
+        try {
+            period = Long.parseLong(kid.substring(KID_PREFIX.length()));
+        } catch (NumberFormatException ex) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        if (!isAccepted(period, System.currentTimeMillis())) {
+            throw new SignatureException("Signing key " + kid + " is no longer accepted");
+        }
+        return keys.computeIfAbsent(period, this::deriveKey);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void rotate() {
+        long now = System.currentTimeMillis();
+        long period = periodAt(now);
+        SigningKey signingKey = current;
+        if (signingKey == null || signingKey.period != period) {
+            current = new SigningKey(period, KID_PREFIX + period,
+                    keys.computeIfAbsent(period, this::deriveKey));
+            log.info("JWT signing key rotated to {}", KID_PREFIX + period);
+        }
+        keys.keySet().removeIf(cached -> !isAccepted(cached, now));
+    }
+
+    private boolean isAccepted(long period, long now) {
+        long currentPeriod = periodAt(now);
+        return period <= currentPeriod + 1 && (period + 1) * rotationMillis + graceMillis > now;
+    }
+
+    private long periodAt(long millis) {
+        return Math.floorDiv(millis, rotationMillis);
+    }
+
+    private SecretKey deriveKey(long period) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(masterSecret, ALGORITHM));
+            byte[] derived = mac.doFinal(("jwt-signing-key:" + period).getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(derived, ALGORITHM);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot derive JWT signing key", ex);
+        }
+    }
+
+    private static byte[] loadSecret(JwtProperties properties) {
+        String encoded = null;
+        if (properties.getKeyFile() != null) {
+            try {
+                encoded = Files.readString(properties.getKeyFile()).trim();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read JWT key file " + properties.getKeyFile(), ex);
+            }
+        } else if (properties.getSecret() != null && !properties.getSecret().isBlank()) {
+            encoded = properties.getSecret().trim();
+        }
+        if (encoded == null) {
+            log.warn("No JWT secret configured; tokens will only be valid on this instance until restart");
+            byte[] random = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] secret = Base64.getDecoder().decode(encoded);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("JWT secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return secret;
+    }
+}
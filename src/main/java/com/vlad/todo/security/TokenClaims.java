@@ -0,0 +1,24 @@
+package com.vlad.todo.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Verified content of an access token, parsed once per request.
+ */
+@Getter
+@AllArgsConstructor
+public final class TokenClaims {
+
+    public static final String REQUEST_ATTRIBUTE = TokenClaims.class.getName();
+
+    private final String subject;
+    private final String role;
+    /** User id; {@code null} for tokens issued before the claim was added. */
+    private final Long userId;
+    private final String tokenId;
+    /** Issue time in epoch millis; truncated to seconds for tokens without {@code iat_ms}. */
+    private final long issuedAt;
+    /** Expiry in epoch millis. */
+    private final long expiresAt;
+}
@@ -0,0 +1,52 @@
+package com.vlad.todo.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory record of revoked tokens, by token id and by subject.
+ */
+@Component
+public class TokenDenyList {
+
+    private static final int PURGE_INTERVAL = 1024;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedSubjects = new ConcurrentHashMap<>();
+    private final AtomicInteger revocations = new AtomicInteger();
+
+    public void revoke(TokenClaims claims) {
+        if (claims.getTokenId() != null) {
+            revokedTokens.put(claims.getTokenId(), claims.getExpiresAt());
+        }
+        afterRevocation();
+    }
+
+    /**
+     * Revokes every token of the subject issued before the current millisecond.
+     * Tokens issued after the change, even within the same second, stay valid.
+     */
+    public void revokeSubject(String subject) {
+        revokedSubjects.put(subject, System.currentTimeMillis());
+        afterRevocation();
+    }
+
+    public boolean isRevoked(TokenClaims claims) {
+        if (claims.getTokenId() != null && revokedTokens.containsKey(claims.getTokenId())) {
+            return true;
+        }
+        Long revokedAt = revokedSubjects.get(claims.getSubject());
+        return revokedAt != null && claims.getIssuedAt() < revokedAt;
+    }
+
+    private void afterRevocation() {
+        if (revocations.incrementAndGet() % PURGE_INTERVAL == 0) {
+            long now = System.currentTimeMillis();
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedSubjects.values().removeIf(
+                    revokedAt -> revokedAt + JwtProvider.EXPIRATION <= now);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.vlad.todo.service;
 
+import com.vlad.todo.cache.NegativeCache;
 import com.vlad.todo.dto.GroupDtoRequest;
 import com.vlad.todo.dto.GroupDtoResponse;
+import com.vlad.todo.dto.KeysetPage;
+import com.vlad.todo.dto.PageCursor;
 import com.vlad.todo.dto.UserDtoResponse;
 import com.vlad.todo.exception.InvalidInputException;
 import com.vlad.todo.exception.NotFoundException;
@@ -11,9 +14,10 @@ import com.vlad.todo.model.Group;
 import com.vlad.todo.model.User;
 import com.vlad.todo.repository.GroupRepository;
 import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.CurrentUser;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -29,62 +33,56 @@ public class GroupService {
     private final UserMapper userMapper;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final NegativeCache negativeCache;
+    private final CurrentUser currentUser;
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Текущий пользователь не найден"));
-    }
-
-    private boolean isAdmin(User user) {
-        return user.getRole().name().equals("ADMIN");
-    }
-
-    private void requireGroupOwnerOrAdmin(User user, Group group) {
-        if (isAdmin(user)) return;
-
-        boolean isMember = group.getUsers().stream()
-                .anyMatch(u -> u.getId().equals(user.getId()));
+    private void requireGroupOwnerOrAdmin(Group group) {
+        if (currentUser.isAdmin()) return;
 
-        if (!isMember) {
+        if (!currentUser.isMemberOf(group.getId())) {
             throw new InvalidInputException("Вы не состоите в этой группе");
         }
     }
 
-    public List<GroupDtoResponse> findAll() {
-        User user = getCurrentUser();
+    public KeysetPage<GroupDtoResponse> findAll(String after, Integer limit) {
+        int size = KeysetPage.limit(limit);
+        long afterId = PageCursor.decodeId(after);
 
-        if (isAdmin(user)) {
-            return groupRepository.findAll().stream()
-                    .map(groupMapper::toDto)
-                    .toList();
+        List<Long> ids = currentUser.isAdmin()
+                ? groupRepository.findPageIds(afterId, Limit.of(size + 1))
+                : groupRepository.findPageIdsByMember(currentUser.getId(), afterId, Limit.of(size + 1));
+        if (ids.isEmpty()) {
+            return new KeysetPage<>(List.of(), null);
         }
 
-        return user.getGroups().stream()
+        List<GroupDtoResponse> rows = groupRepository.findWithUsersByIdInOrderByIdAsc(ids).stream()
                 .map(groupMapper::toDto)
                 .toList();
+        return KeysetPage.of(rows, size, g -> PageCursor.afterId(g.getId()));
     }
 
     public GroupDtoResponse findById(long id) {
-        Group group = groupRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(
-                        String.format(GROUP_WITH_ID_NOT_FOUND, id)));
+        Group group = negativeCache.findOrThrow(NegativeCache.MISSING_GROUPS, id,
+                groupRepository::findById,
+                () -> new NotFoundException(String.format(GROUP_WITH_ID_NOT_FOUND, id)));
 
-        requireGroupOwnerOrAdmin(getCurrentUser(), group);
+        requireGroupOwnerOrAdmin(group);
 
         return groupMapper.toDto(group);
     }
 
     public GroupDtoResponse save(GroupDtoRequest request) {
-        User current = getCurrentUser();
-
         Group group = groupMapper.toEntity(request);
 
-        if (!isAdmin(current)) {
+        if (!currentUser.isAdmin()) {
+            // addUser touches the user's side of the association, so load the entity
+            User current = userRepository.findById(currentUser.getId())
+                    .orElseThrow(() -> new NotFoundException("Текущий пользователь не найден"));
             group.addUser(current);
         }
 
         groupRepository.save(group);
+        negativeCache.invalidate(NegativeCache.MISSING_GROUPS, group.getId());
         return groupMapper.toDto(group);
     }
 
@@ -93,7 +91,7 @@ public class GroupService {
                 .orElseThrow(() -> new NotFoundException(
                         String.format(GROUP_WITH_ID_NOT_FOUND, id)));
 
-        requireGroupOwnerOrAdmin(getCurrentUser(), group);
+        requireGroupOwnerOrAdmin(group);
 
         if (request.getName() != null) {
             group.setName(request.getName());
@@ -111,7 +109,7 @@ public class GroupService {
                 .orElseThrow(() -> new NotFoundException(
                         String.format(GROUP_WITH_ID_NOT_FOUND, id)));
 
-        requireGroupOwnerOrAdmin(getCurrentUser(), group);
+        requireGroupOwnerOrAdmin(group);
 
         group.getUsers().forEach(u -> u.getGroups().remove(group));
         groupRepository.delete(group);
@@ -122,7 +120,7 @@ public class GroupService {
                 .orElseThrow(() -> new NotFoundException(
                         String.format(GROUP_WITH_ID_NOT_FOUND, groupId)));
 
-        requireGroupOwnerOrAdmin(getCurrentUser(), group);
+        requireGroupOwnerOrAdmin(group);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
@@ -138,14 +136,12 @@ public class GroupService {
                 .orElseThrow(() -> new NotFoundException(
                         String.format(GROUP_WITH_ID_NOT_FOUND, groupId)));
 
-        User current = getCurrentUser();
-
-        requireGroupOwnerOrAdmin(current, group);
+        requireGroupOwnerOrAdmin(group);
 
         User target = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        if (!isAdmin(current) && !current.getId().equals(userId)) {
+        if (!currentUser.isAdmin() && currentUser.getId() != userId) {
             throw new InvalidInputException("Вы можете удалять только себя из группы");
         }
 
@@ -2,18 +2,19 @@ package com.vlad.todo.service;
 
 import com.vlad.todo.dto.GroupTaskDtoRequest;
 import com.vlad.todo.dto.GroupTaskDtoResponse;
+import com.vlad.todo.dto.KeysetPage;
+import com.vlad.todo.dto.PageCursor;
 import com.vlad.todo.exception.NotFoundException;
 import com.vlad.todo.mapper.GroupTaskMapper;
 import com.vlad.todo.model.Group;
 import com.vlad.todo.model.GroupTask;
-import com.vlad.todo.model.Role;
 import com.vlad.todo.model.User;
 import com.vlad.todo.repository.GroupRepository;
 import com.vlad.todo.repository.GroupTaskRepository;
 import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.List;
 
@@ -25,26 +26,18 @@ public class GroupTaskService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final GroupTaskMapper mapper;
+    private final CurrentUser currentUser;
 
-    private User getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        String email = principal instanceof UserDetails ? ((UserDetails) principal).getUsername() : principal.toString();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Текущий пользователь не найден"));
-    }
-
-    private boolean isAdmin(User user) {
-        return user.getRole() == Role.ADMIN;
+    private boolean canAccess(Group group) {
+        return currentUser.isAdmin() || currentUser.isMemberOf(group.getId());
     }
 
     public GroupTaskDtoResponse create(GroupTaskDtoRequest dto) {
         Group group = groupRepository.findById(dto.getGroupId())
                 .orElseThrow(() -> new NotFoundException("Группа не найдена"));
 
-        User currentUser = getCurrentUser();
-
         // Пользователь должен быть в группе или быть админом
-        if (!group.getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(group)) {
             throw new NotFoundException("Вы не являетесь участником этой группы");
         }
 
@@ -74,8 +67,7 @@ public class GroupTaskService {
         GroupTask task = groupTaskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Задача не найдена"));
 
-        User currentUser = getCurrentUser();
-        if (!task.getGroup().getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(task.getGroup())) {
             throw new NotFoundException("Вы не можете редактировать эту задачу");
         }
 
@@ -104,46 +96,49 @@ public class GroupTaskService {
         GroupTask task = groupTaskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Задача не найдена"));
 
-        User currentUser = getCurrentUser();
-        if (!task.getGroup().getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(task.getGroup())) {
             throw new NotFoundException("Вы не можете просматривать эту задачу");
         }
 
         return mapper.toDto(task);
     }
 
-    public List<GroupTaskDtoResponse> findByGroup(Long groupId) {
+    public KeysetPage<GroupTaskDtoResponse> findByGroup(Long groupId, String after, Integer limit) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new NotFoundException("Группа не найдена"));
 
-        User currentUser = getCurrentUser();
-        if (!group.getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(group)) {
             throw new NotFoundException("Вы не можете просматривать задачи этой группы");
         }
 
-        return groupTaskRepository.findByGroupId(groupId)
+        int size = KeysetPage.limit(limit);
+        List<GroupTaskDtoResponse> rows = groupTaskRepository
+                .findByGroupIdAndIdGreaterThanOrderByIdAsc(groupId, PageCursor.decodeId(after), Limit.of(size + 1))
                 .stream()
                 .map(mapper::toDto)
                 .toList();
+        return KeysetPage.of(rows, size, t -> PageCursor.afterId(t.getId()));
     }
 
-    public List<GroupTaskDtoResponse> findByAssignedUser(Long userId) {
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(userId) && !isAdmin(currentUser)) {
+    public KeysetPage<GroupTaskDtoResponse> findByAssignedUser(Long userId, String after, Integer limit) {
+        if (!userId.equals(currentUser.getId()) && !currentUser.isAdmin()) {
             throw new NotFoundException("Вы можете просматривать только свои задачи");
         }
-        return groupTaskRepository.findByAssignedUserId(userId)
+        int size = KeysetPage.limit(limit);
+        List<GroupTaskDtoResponse> rows = groupTaskRepository
+                .findByAssignedUserIdAndIdGreaterThanOrderByIdAsc(userId, PageCursor.decodeId(after),
+                        Limit.of(size + 1))
                 .stream()
                 .map(mapper::toDto)
                 .toList();
+        return KeysetPage.of(rows, size, t -> PageCursor.afterId(t.getId()));
     }
 
     public void delete(Long id) {
         GroupTask task = groupTaskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Задача не найдена"));
 
-        User currentUser = getCurrentUser();
-        if (!task.getGroup().getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(task.getGroup())) {
             throw new NotFoundException("Вы не можете удалять эту задачу");
         }
 
@@ -155,9 +150,8 @@ public class GroupTaskService {
                 .orElseThrow(() -> new NotFoundException("Задача не найдена"));
 
         Group group = task.getGroup();
-        User currentUser = getCurrentUser();
 
-        if (!group.getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(group)) {
             throw new NotFoundException("Вы не состоите в этой группе");
         }
 
@@ -176,8 +170,7 @@ public class GroupTaskService {
         GroupTask task = groupTaskRepository.findById(taskId)
                 .orElseThrow(() -> new NotFoundException("Задача не найдена"));
 
-        User currentUser = getCurrentUser();
-        if (!task.getGroup().getUsers().contains(currentUser) && !isAdmin(currentUser)) {
+        if (!canAccess(task.getGroup())) {
             throw new NotFoundException("Вы не можете управлять этой задачей");
         }
 
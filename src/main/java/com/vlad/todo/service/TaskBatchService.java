@@ -0,0 +1,219 @@
+package com.vlad.todo.service;
+
+import static com.vlad.todo.service.TaskService.TASK_WITH_ID_NOT_FOUND;
+import static com.vlad.todo.service.UserService.USER_WITH_ID_NOT_FOUND;
+
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.cache.TaskListCache;
+import com.vlad.todo.dto.TaskBatchResult;
+import com.vlad.todo.dto.TaskBatchUpdate;
+import com.vlad.todo.dto.TaskDtoRequest;
+import com.vlad.todo.exception.InvalidInputException;
+import com.vlad.todo.mapper.TaskMapper;
+import com.vlad.todo.model.Task;
+import com.vlad.todo.repository.TaskRepository;
+import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.CurrentUser;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Task changes sent as arrays by sync clients. A batch runs in one
+ * transaction: the tasks it touches are loaded and checked for ownership with
+ * a single IN query, and the writes go out as JDBC batches at commit. Items
+ * that fail validation or access checks are reported and skipped.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TaskBatchService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final TaskListCache taskListCache;
+    private final NegativeCache negativeCache;
+    private final CurrentUser currentUser;
+    private final Validator validator;
+
+    public List<TaskBatchResult> create(List<TaskDtoRequest> requests) {
+        checkSize(requests);
+        boolean admin = currentUser.isAdmin();
+        Set<Long> owners = admin
+                ? existingUsers(requests.stream().filter(Objects::nonNull).map(TaskDtoRequest::getUserId).toList())
+                : Set.of(currentUser.getId());
+
+        TaskBatchResult[] results = new TaskBatchResult[requests.size()];
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TaskDtoRequest request = requests.get(i);
+            String problem = violations(request);
+            if (problem != null) {
+                results[i] = TaskBatchResult.failed(i, null, problem);
+                continue;
+            }
+            long ownerId = admin ? request.getUserId() : currentUser.getId();
+            if (!owners.contains(ownerId)) {
+                results[i] = TaskBatchResult.failed(i, null, String.format(USER_WITH_ID_NOT_FOUND, ownerId));
+                continue;
+            }
+            Task task = taskMapper.toEntity(request);
+            task.setUser(userRepository.getReferenceById(ownerId));
+            tasks.add(task);
+            positions.add(i);
+        }
+
+        taskRepository.saveAll(tasks);
+        Set<Long> touchedOwners = new HashSet<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            negativeCache.invalidate(NegativeCache.MISSING_TASKS, task.getId());
+            touchedOwners.add(task.getUser().getId());
+            results[positions.get(i)] = TaskBatchResult.ok(positions.get(i), taskMapper.toDto(task));
+        }
+        touchedOwners.forEach(taskListCache::evict);
+        return Arrays.asList(results);
+    }
+
+    public List<TaskBatchResult> update(List<TaskBatchUpdate> updates) {
+        checkSize(updates);
+        boolean admin = currentUser.isAdmin();
+        Map<Long, Task> tasks = loadTasks(updates.stream()
+                .filter(Objects::nonNull).map(TaskBatchUpdate::getId).toList());
+        Set<Long> newOwners = admin
+                ? existingUsers(updates.stream().filter(Objects::nonNull).map(TaskBatchUpdate::getUserId).toList())
+                : Set.of();
+
+        List<TaskBatchResult> results = new ArrayList<>(updates.size());
+        Set<Long> touchedOwners = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            TaskBatchUpdate update = updates.get(i);
+            Long id = update == null ? null : update.getId();
+            String problem = violations(update);
+            if (problem == null) {
+                problem = accessProblem(tasks.get(id), id, "Вы не можете изменять эту задачу");
+            }
+            if (problem == null && update.getTitle() != null && update.getTitle().isBlank()) {
+                problem = "Заголовок не должен быть пустым!";
+            }
+            if (problem == null && admin && update.getUserId() != null && !newOwners.contains(update.getUserId())) {
+                problem = String.format(USER_WITH_ID_NOT_FOUND, update.getUserId());
+            }
+            if (problem != null) {
+                results.add(TaskBatchResult.failed(i, id, problem));
+                continue;
+            }
+
+            Task task = tasks.get(id);
+            touchedOwners.add(task.getUser().getId());
+            if (update.getTitle() != null) task.setTitle(update.getTitle());
+            if (update.getContent() != null) task.setContent(update.getContent());
+            if (update.getIsCompleted() != null) task.setIsCompleted(update.getIsCompleted());
+            if (update.getDeadlineDate() != null) task.setDeadlineDate(update.getDeadlineDate());
+            if (update.getIsImportant() != null) task.setIsImportant(update.getIsImportant());
+            if (admin && update.getUserId() != null) {
+                task.setUser(userRepository.getReferenceById(update.getUserId()));
+                touchedOwners.add(update.getUserId());
+            }
+            // written by dirty checking at commit, as one JDBC batch
+            results.add(TaskBatchResult.ok(i, taskMapper.toDto(task)));
+        }
+        touchedOwners.forEach(taskListCache::evict);
+        return results;
+    }
+
+    public List<TaskBatchResult> delete(List<Long> ids) {
+        checkSize(ids);
+        Map<Long, Task> tasks = loadTasks(ids);
+
+        List<TaskBatchResult> results = new ArrayList<>(ids.size());
+        List<Task> doomed = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Set<Long> touchedOwners = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            String problem = id == null || id < 1
+                    ? "Id должен быть больше 0"
+                    : accessProblem(tasks.get(id), id, "Вы не можете удалять эту задачу");
+            if (problem != null) {
+                results.add(TaskBatchResult.failed(i, id, problem));
+                continue;
+            }
+            if (seen.add(id)) {
+                Task task = tasks.get(id);
+                doomed.add(task);
+                touchedOwners.add(task.getUser().getId());
+            }
+            results.add(TaskBatchResult.deleted(i, id));
+        }
+
+        if (!doomed.isEmpty()) {
+            taskRepository.deleteAllInBatch(doomed);
+        }
+        touchedOwners.forEach(taskListCache::evict);
+        return results;
+    }
+
+    private Map<Long, Task> loadTasks(Collection<Long> ids) {
+        Set<Long> wanted = ids.stream().filter(id -> id != null && id > 0).collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        return taskRepository.findAllById(wanted).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private Set<Long> existingUsers(Collection<Long> ids) {
+        Set<Long> wanted = ids.stream().filter(id -> id != null && id > 0).collect(Collectors.toSet());
+        return wanted.isEmpty() ? Set.of() : userRepository.findExistingIds(wanted);
+    }
+
+    private String accessProblem(Task task, Long id, String forbidden) {
+        if (task == null) {
+            return String.format(TASK_WITH_ID_NOT_FOUND, id);
+        }
+        if (!currentUser.isAdmin() && task.getUser().getId() != currentUser.getId()) {
+            return forbidden;
+        }
+        return null;
+    }
+
+    private String violations(Object item) {
+        if (item == null) {
+            return "Пустой элемент";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidInputException("Пакет не должен быть пустым");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new InvalidInputException("В пакете не больше " + MAX_BATCH_SIZE + " элементов");
+        }
+    }
+}
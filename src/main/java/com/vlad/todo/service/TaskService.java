@@ -2,21 +2,29 @@ package com.vlad.todo.service;
 
 import static com.vlad.todo.service.UserService.USER_WITH_ID_NOT_FOUND;
 
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.cache.TaskListCache;
+import com.vlad.todo.dto.KeysetPage;
+import com.vlad.todo.dto.PageCursor;
 import com.vlad.todo.dto.TaskDtoRequest;
 import com.vlad.todo.dto.TaskDtoResponse;
+import com.vlad.todo.dto.TaskFilter;
 import com.vlad.todo.exception.InvalidInputException;
 import com.vlad.todo.exception.NotFoundException;
 import com.vlad.todo.mapper.TaskMapper;
 import com.vlad.todo.model.Task;
 import com.vlad.todo.model.User;
 import com.vlad.todo.repository.TaskRepository;
+import com.vlad.todo.repository.TaskSpecifications;
 import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.CurrentUser;
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,32 +33,15 @@ import org.springframework.stereotype.Service;
 public class TaskService {
     public static final String TASK_WITH_ID_NOT_FOUND = "Задача с id %d не найдена";
 
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Sort BY_DEADLINE = Sort.by("deadlineDate", "id");
+
     private final TaskMapper taskMapper;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-
-    private Authentication getAuth() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) {
-            throw new InvalidInputException("Пользователь не аутентифицирован");
-        }
-        return auth;
-    }
-
-    private String getCurrentUsername() {
-        return getAuth().getName();
-    }
-
-    private boolean isAdmin() {
-        return getAuth().getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
-    }
-
-    private User getCurrentUser() {
-        String email = getCurrentUsername();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + email));
-    }
+    private final TaskListCache taskListCache;
+    private final NegativeCache negativeCache;
+    private final CurrentUser currentUser;
 
     private void checkUserExists(long userId) {
         if (!userRepository.existsById(userId)) {
@@ -58,43 +49,93 @@ public class TaskService {
         }
     }
 
-    public List<TaskDtoResponse> findAllTasks() {
-        List<Task> tasks;
-        if (isAdmin()) {
-            tasks = taskRepository.findAll();
-        } else {
-            long userId = getCurrentUser().getId();
-            tasks = taskRepository.findByUserId(userId);
+    private KeysetPage<TaskDtoResponse> findTaskPage(TaskFilter filter, boolean byDeadline,
+                                                     String after, Integer limit) {
+        if (filter.getDeadlineFrom() != null && filter.getDeadlineTo() != null
+                && filter.getDeadlineFrom().isAfter(filter.getDeadlineTo())) {
+            throw new InvalidInputException("Начало диапазона дедлайнов позже его конца");
+        }
+        int size = KeysetPage.limit(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        if (cursor != null && cursor.isById() == byDeadline) {
+            throw new InvalidInputException("Курсор не соответствует порядку сортировки");
+        }
+        Specification<Task> spec = TaskSpecifications.matching(filter);
+
+        if (byDeadline) {
+            List<TaskDtoResponse> rows = fetchByDeadline(spec, cursor, size + 1).stream()
+                    .map(taskMapper::toDto)
+                    .toList();
+            return KeysetPage.of(rows, size, t -> PageCursor.afterDeadline(t.getDeadlineDate(), t.getId()));
         }
 
-        List<TaskDtoResponse> dto = new ArrayList<>();
-        tasks.forEach(t -> dto.add(taskMapper.toDto(t)));
-        return dto;
+        long afterId = cursor == null ? 0 : cursor.getId();
+        Supplier<List<TaskDtoResponse>> loader = () -> fetch(spec.and(TaskSpecifications.idAfter(afterId)),
+                BY_ID, size + 1).stream()
+                .map(taskMapper::toDto)
+                .toList();
+        // only the unfiltered first page of a user's tasks is cached; it is what clients load most
+        Long ownerId = filter.getUserId();
+        boolean defaultPage = ownerId != null && cursor == null && size == KeysetPage.DEFAULT_LIMIT
+                && filter.getCompleted() == null && filter.getImportant() == null
+                && filter.getDeadlineFrom() == null && filter.getDeadlineTo() == null;
+        List<TaskDtoResponse> rows = defaultPage ? taskListCache.get(ownerId, loader) : loader.get();
+        return KeysetPage.of(rows, size, t -> PageCursor.afterId(t.getId()));
+    }
+
+    /** Tasks with a deadline come first, in deadline order; those without one follow in id order. */
+    private List<Task> fetchByDeadline(Specification<Task> spec, PageCursor cursor, int count) {
+        List<Task> rows = new ArrayList<>(count);
+        if (cursor == null || cursor.isWithDeadline()) {
+            Specification<Task> dated = spec.and(TaskSpecifications.hasDeadline());
+            if (cursor != null) {
+                dated = dated.and(TaskSpecifications.deadlineAfter(cursor.getDeadline(), cursor.getId()));
+            }
+            rows.addAll(fetch(dated, BY_DEADLINE, count));
+        }
+        if (rows.size() < count) {
+            long afterId = cursor == null || cursor.isWithDeadline() ? 0 : cursor.getId();
+            rows.addAll(fetch(spec.and(TaskSpecifications.hasNoDeadline())
+                    .and(TaskSpecifications.idAfter(afterId)), BY_ID, count - rows.size()));
+        }
+        return rows;
     }
 
-    public List<TaskDtoResponse> findTasksByUser(long userId) {
-        if (userId < 1) throw new InvalidInputException("Id пользователя должен быть больше 0");
+    private List<Task> fetch(Specification<Task> spec, Sort sort, int count) {
+        return taskRepository.findBy(spec, query -> query.sortBy(sort).limit(count).all());
+    }
 
-        if (!isAdmin()) {
-            long currentId = getCurrentUser().getId();
-            if (currentId != userId) {
+    public KeysetPage<TaskDtoResponse> findAllTasks(TaskFilter filter, boolean byDeadline,
+                                                    String after, Integer limit) {
+        if (filter.getUserId() != null && filter.getUserId() < 1) {
+            throw new InvalidInputException("Id пользователя должен быть больше 0");
+        }
+        if (!currentUser.isAdmin()) {
+            if (filter.getUserId() != null && filter.getUserId() != currentUser.getId()) {
                 throw new InvalidInputException("Вы не можете просматривать задачи других пользователей");
             }
+            filter.setUserId(currentUser.getId());
         }
+        return findTaskPage(filter, byDeadline, after, limit);
+    }
 
-        List<Task> tasks = taskRepository.findByUserId(userId);
-        List<TaskDtoResponse> dto = new ArrayList<>();
-        tasks.forEach(t -> dto.add(taskMapper.toDto(t)));
-        return dto;
+    public KeysetPage<TaskDtoResponse> findTasksByUser(long userId, boolean byDeadline,
+                                                       String after, Integer limit) {
+        if (userId < 1) throw new InvalidInputException("Id пользователя должен быть больше 0");
+
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(userId);
+        return findAllTasks(filter, byDeadline, after, limit);
     }
 
     public TaskDtoResponse findTaskById(long id) {
         if (id < 1) throw new InvalidInputException("Id должен быть больше 0");
 
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(String.format(TASK_WITH_ID_NOT_FOUND, id)));
+        Task task = negativeCache.findOrThrow(NegativeCache.MISSING_TASKS, id, taskRepository::findById,
+                () -> new NotFoundException(String.format(TASK_WITH_ID_NOT_FOUND, id)));
 
-        if (!isAdmin() && task.getUser() != null && task.getUser().getId() != getCurrentUser().getId()) {
+        if (!currentUser.isAdmin() && task.getUser() != null
+                && task.getUser().getId() != currentUser.getId()) {
             throw new InvalidInputException("Вы не можете просматривать эту задачу");
         }
 
@@ -102,7 +143,7 @@ public class TaskService {
     }
 
     public TaskDtoResponse saveTask(TaskDtoRequest taskDtoRequest) {
-        if (isAdmin()) {
+        if (currentUser.isAdmin()) {
             if (taskDtoRequest.getUserId() == null || taskDtoRequest.getUserId() < 1) {
                 throw new InvalidInputException("Для ADMIN нужно указать userId");
             }
@@ -113,13 +154,18 @@ public class TaskService {
             Task task = taskMapper.toEntity(taskDtoRequest);
             task.setUser(user);
             taskRepository.save(task);
+            negativeCache.invalidate(NegativeCache.MISSING_TASKS, task.getId());
+            taskListCache.evict(user.getId());
             return taskMapper.toDto(task);
 
         } else {
-            User current = getCurrentUser();
+            // a reference is enough to set the owner; no need to load the user
+            User current = userRepository.getReferenceById(currentUser.getId());
             Task task = taskMapper.toEntity(taskDtoRequest);
             task.setUser(current);
             taskRepository.save(task);
+            negativeCache.invalidate(NegativeCache.MISSING_TASKS, task.getId());
+            taskListCache.evict(currentUser.getId());
             return taskMapper.toDto(task);
         }
     }
@@ -130,9 +176,11 @@ public class TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format(TASK_WITH_ID_NOT_FOUND, id)));
 
-        if (!isAdmin() && task.getUser() != null && task.getUser().getId() != getCurrentUser().getId()) {
+        if (!currentUser.isAdmin() && task.getUser() != null
+                && task.getUser().getId() != currentUser.getId()) {
             throw new InvalidInputException("Вы не можете изменять эту задачу");
         }
+        long previousOwnerId = task.getUser().getId();
 
         if (taskDtoRequest.getTitle() != null) task.setTitle(taskDtoRequest.getTitle());
         if (taskDtoRequest.getContent() != null) task.setContent(taskDtoRequest.getContent());
@@ -140,13 +188,17 @@ public class TaskService {
         if (taskDtoRequest.getDeadlineDate() != null) task.setDeadlineDate(taskDtoRequest.getDeadlineDate());
         if (taskDtoRequest.getIsImportant() != null) task.setIsImportant(taskDtoRequest.getIsImportant());
 
-        if (isAdmin() && taskDtoRequest.getUserId() != null && taskDtoRequest.getUserId() > 0) {
+        if (currentUser.isAdmin() && taskDtoRequest.getUserId() != null && taskDtoRequest.getUserId() > 0) {
             User newOwner = userRepository.findById(taskDtoRequest.getUserId())
                     .orElseThrow(() -> new NotFoundException(String.format(USER_WITH_ID_NOT_FOUND, taskDtoRequest.getUserId())));
             task.setUser(newOwner);
         }
 
         taskRepository.save(task);
+        taskListCache.evict(previousOwnerId);
+        if (task.getUser().getId() != previousOwnerId) {
+            taskListCache.evict(task.getUser().getId());
+        }
         return taskMapper.toDto(task);
     }
 
@@ -156,41 +208,17 @@ public class TaskService {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format(TASK_WITH_ID_NOT_FOUND, id)));
 
-        if (!isAdmin() && task.getUser() != null && task.getUser().getId() != getCurrentUser().getId()) {
+        if (!currentUser.isAdmin() && task.getUser() != null
+                && task.getUser().getId() != currentUser.getId()) {
             throw new InvalidInputException("Вы не можете удалять эту задачу");
         }
 
         taskRepository.delete(task);
-    }
-
-    public List<TaskDtoResponse> findTasksForCurrentUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + email));
-        List<Task> tasks = taskRepository.findByUserId(user.getId());
-        List<TaskDtoResponse> dto = new ArrayList<>();
-        tasks.forEach(t -> dto.add(taskMapper.toDto(t)));
-        return dto;
-    }
-
-    public List<TaskDtoResponse> findTasksByUserWithAccess(long userId, String currentUserEmail) {
-        User current = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + currentUserEmail));
-
-        if (!isAdmin() && current.getId() != userId) {
-            throw new InvalidInputException("Вы не можете просматривать задачи других пользователей");
-        }
-
-        List<Task> tasks = taskRepository.findByUserId(userId);
-        List<TaskDtoResponse> dto = new ArrayList<>();
-        tasks.forEach(t -> dto.add(taskMapper.toDto(t)));
-        return dto;
+        taskListCache.evict(task.getUser().getId());
     }
 
     public TaskDtoResponse saveTaskWithOwner(TaskDtoRequest dto, String currentUserEmail) {
-        User current = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден: " + currentUserEmail));
-
-        if (isAdmin()) {
+        if (currentUser.isAdmin()) {
             if (dto.getUserId() == null || dto.getUserId() < 1) {
                 throw new InvalidInputException("Admin должен указать userId");
             }
@@ -199,11 +227,16 @@ public class TaskService {
             Task task = taskMapper.toEntity(dto);
             task.setUser(owner);
             taskRepository.save(task);
+            negativeCache.invalidate(NegativeCache.MISSING_TASKS, task.getId());
+            taskListCache.evict(owner.getId());
             return taskMapper.toDto(task);
         } else {
+            User current = userRepository.getReferenceById(currentUser.getId());
             Task task = taskMapper.toEntity(dto);
             task.setUser(current);
             taskRepository.save(task);
+            negativeCache.invalidate(NegativeCache.MISSING_TASKS, task.getId());
+            taskListCache.evict(currentUser.getId());
             return taskMapper.toDto(task);
         }
     }
@@ -0,0 +1,134 @@
+package com.vlad.todo.service;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuSpringCache;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.mapper.UserMapper;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.UserRepository;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the users cache warm across restarts. At shutdown the ids of the
+ * hottest entries are written to a small binary snapshot; at startup they are
+ * loaded back in batches before the application reports itself ready, within
+ * the configured entry and time budget.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheWarmer implements ApplicationRunner, DisposableBean {
+
+    private static final int SNAPSHOT_MAGIC = 0x55534b31;
+
+    private final CacheProperties cacheProperties;
+    private final LfuCacheManager cacheManager;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        CacheProperties.Warmup warmup = cacheProperties.getWarmup();
+        if (warmup.getFile() == null || warmup.getMaxEntries() <= 0) {
+            return;
+        }
+        List<Long> ids;
+        try {
+            ids = readSnapshot(warmup.getFile(), warmup.getMaxEntries());
+        } catch (NoSuchFileException ex) {
+            return;
+        } catch (IOException ex) {
+            log.warn("Cache warm-up snapshot {} is unreadable: {}", warmup.getFile(), ex.getMessage());
+            return;
+        }
+        LfuSpringCache cache = cacheManager.getLfuCache(UserService.USERS_CACHE);
+        long start = System.nanoTime();
+        long deadline = start + warmup.getTimeout().toNanos();
+        int batchSize = Math.max(1, warmup.getBatchSize());
+        int loaded = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            if (System.nanoTime() - deadline >= 0) {
+                log.info("Cache warm-up stopped after {} by timeout", warmup.getTimeout());
+                break;
+            }
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            for (User user : userRepository.findAllById(batch)) {
+                cache.put(user.getId(), userMapper.toDto(user));
+                loaded++;
+            }
+        }
+        log.info("Cache warm-up: loaded {} of {} users in {} ms", loaded, ids.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void destroy() {
+        CacheProperties.Warmup warmup = cacheProperties.getWarmup();
+        if (warmup.getFile() == null || warmup.getMaxEntries() <= 0) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Object key : cacheManager.getLfuCache(UserService.USERS_CACHE)
+                .hottestKeys(warmup.getMaxEntries())) {
+            if (key instanceof Number id) {
+                ids.add(id.longValue());
+            }
+        }
+        try {
+            writeSnapshot(warmup.getFile(), ids);
+        } catch (IOException ex) {
+            log.warn("Cache warm-up snapshot {} was not written: {}", warmup.getFile(), ex.getMessage());
+        }
+    }
+
+    private static List<Long> readSnapshot(Path file, int maxEntries) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("unknown format");
+            }
+            int count = Math.min(in.readInt(), maxEntries);
+            List<Long> ids = new ArrayList<>(Math.max(count, 0));
+            for (int i = 0; i < count; i++) {
+                ids.add(in.readLong());
+            }
+            return ids;
+        }
+    }
+
+    private static void writeSnapshot(Path file, List<Long> ids) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(ids.size());
+                for (long id : ids) {
+                    out.writeLong(id);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.vlad.todo.service;
+
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.dto.UserDtoRequest;
+import com.vlad.todo.dto.UserDtoResponse;
+import com.vlad.todo.dto.UserImportResult;
+import com.vlad.todo.mapper.UserMapper;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.PasswordHasher;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk creation of users. Rows are processed in chunks: duplicates are found
+ * with one query per chunk for emails and one for phones, passwords are hashed
+ * in parallel on the password pool, and each chunk is inserted in its own
+ * transaction as JDBC batches. A bad row is reported and skipped; it does not
+ * fail the rest of the import. If a batch is rejected by the database, that
+ * chunk is saved again row by row so only the offending rows are reported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordHasher passwordHasher;
+    private final NegativeCache negativeCache;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    private static final class Row {
+        final int index;
+        final UserDtoRequest request;
+
+        Row(int index, UserDtoRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+
+    public UserImportResult importUsers(List<UserDtoRequest> requests) {
+        List<UserDtoResponse> created = new ArrayList<>();
+        List<UserImportResult.RowError> errors = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+
+        for (int from = 0; from < requests.size(); from += CHUNK_SIZE) {
+            List<Row> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(from + CHUNK_SIZE, requests.size()); i++) {
+                UserDtoRequest request = requests.get(i);
+                String problem = validate(request);
+                if (problem == null && !seenEmails.add(request.getEmail())) {
+                    problem = "Почта повторяется в запросе";
+                }
+                if (problem == null && !seenPhones.add(request.getPhone())) {
+                    problem = "Телефон повторяется в запросе";
+                }
+                if (problem != null) {
+                    errors.add(error(i, request, problem));
+                } else {
+                    rows.add(new Row(i, request));
+                }
+            }
+            importChunk(rows, created, errors);
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        log.info("User import: {} created, {} rejected", created.size(), errors.size());
+        return new UserImportResult(created, errors);
+    }
+
+    private void importChunk(List<Row> rows, List<UserDtoResponse> created,
+                             List<UserImportResult.RowError> errors) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                rows.stream().map(r -> r.request.getEmail()).toList());
+        Set<String> existingPhones = userRepository.findExistingPhones(
+                rows.stream().map(r -> r.request.getPhone()).toList());
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existingEmails.contains(row.request.getEmail())
+                    || existingPhones.contains(row.request.getPhone())) {
+                errors.add(error(row.index, row.request,
+                        "Пользователь с такой-же почтой/телефоном уже существует"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordHasher.encodeAll(
+                accepted.stream().map(r -> r.request.getPassword()).toList());
+        List<User> users = toEntities(accepted, hashes);
+        try {
+            userRepository.saveAll(users);
+        } catch (DataAccessException ex) {
+            // a concurrent insert took an email or phone after the check above
+            log.warn("User import chunk of {} rows failed, saving row by row: {}",
+                    accepted.size(), ex.getMessage());
+            entityManager.clear();
+            users = saveOneByOne(accepted, hashes, errors);
+        } finally {
+            // with open-in-view the request keeps one persistence context; do not let it grow
+            entityManager.clear();
+        }
+        for (User user : users) {
+            negativeCache.invalidate(NegativeCache.MISSING_USERS, user.getId());
+            created.add(userMapper.toDto(user));
+        }
+    }
+
+    private List<User> saveOneByOne(List<Row> rows, List<String> hashes,
+                                    List<UserImportResult.RowError> errors) {
+        // entities of the failed batch may already carry ids, so build them again
+        List<User> users = toEntities(rows, hashes);
+        List<User> saved = new ArrayList<>(users.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            try {
+                saved.add(userRepository.save(users.get(i)));
+            } catch (DataIntegrityViolationException ex) {
+                errors.add(error(row.index, row.request,
+                        "Пользователь с такой-же почтой/телефоном уже существует"));
+            } catch (DataAccessException ex) {
+                log.warn("User import row {} failed: {}", row.index, ex.getMessage());
+                errors.add(error(row.index, row.request,
+                        "Не удалось сохранить пользователя, повторите попытку"));
+            }
+        }
+        return saved;
+    }
+
+    private List<User> toEntities(List<Row> rows, List<String> hashes) {
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            users.add(userMapper.toEntity(rows.get(i).request, hashes.get(i)));
+        }
+        return users;
+    }
+
+    private String validate(UserDtoRequest request) {
+        if (request == null) {
+            return "Пустая строка";
+        }
+        Set<ConstraintViolation<UserDtoRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (isBlank(request.getEmail()) || isBlank(request.getPassword())
+                || isBlank(request.getFirstName()) || isBlank(request.getLastName())
+                || isBlank(request.getPhone())) {
+            return "Не заполнены обязательные поля";
+        }
+        try {
+            Role.valueOf(request.getRole());
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return "Неизвестная роль: " + request.getRole();
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static UserImportResult.RowError error(int index, UserDtoRequest request, String message) {
+        return new UserImportResult.RowError(index, request == null ? null : request.getEmail(), message);
+    }
+}
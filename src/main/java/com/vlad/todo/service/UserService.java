@@ -2,7 +2,11 @@ package com.vlad.todo.service;
 
 import static com.vlad.todo.service.GroupService.GROUP_WITH_ID_NOT_FOUND;
 
-import com.vlad.todo.cache.UserCache;
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.cache.TaskListCache;
+import com.vlad.todo.dto.KeysetPage;
+import com.vlad.todo.dto.PageCursor;
 import com.vlad.todo.dto.UserDtoRequest;
 import com.vlad.todo.dto.UserDtoResponse;
 import com.vlad.todo.exception.AlreadyExistsException;
@@ -13,10 +17,17 @@ import com.vlad.todo.model.Role;
 import com.vlad.todo.model.User;
 import com.vlad.todo.repository.GroupRepository;
 import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.PrincipalCache;
+import com.vlad.todo.security.TokenDenyList;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -25,16 +36,31 @@ import org.springframework.stereotype.Service;
 public class UserService {
 
     public static final String USER_WITH_ID_NOT_FOUND = "Пользователь с id %d не найден";
+    public static final String USERS_CACHE = "users";
     private final UserMapper userMapper;
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
-    private final UserCache userCache;
+    private final TaskListCache taskListCache;
+    private final LfuCacheManager cacheManager;
+    private final NegativeCache negativeCache;
+    private final PrincipalCache principalCache;
+    private final TokenDenyList tokenDenyList;
 
-    public List<UserDtoResponse> findAll() {
-        List<UserDtoResponse> usersDtoResponse = new ArrayList<>();
-        userRepository.findAll().forEach(
-                user -> usersDtoResponse.add(userMapper.toDto(user)));
-        return usersDtoResponse;
+    @PostConstruct
+    void registerUserRefreshLoader() {
+        cacheManager.getLfuCache(USERS_CACHE).setRefreshLoader(key -> userRepository
+                .findById(((Number) key).longValue())
+                .map(userMapper::toDto)
+                .orElse(null));
+    }
+
+    public KeysetPage<UserDtoResponse> findAll(String after, Integer limit) {
+        int size = KeysetPage.limit(limit);
+        List<UserDtoResponse> rows = userRepository
+                .findByIdGreaterThanOrderByIdAsc(PageCursor.decodeId(after), Limit.of(size + 1)).stream()
+                .map(userMapper::toDto)
+                .toList();
+        return KeysetPage.of(rows, size, u -> PageCursor.afterId(u.getId()));
     }
     public UserDtoResponse findByEmail(String email) {
         User user = userRepository.findByEmail(email)
@@ -42,15 +68,11 @@ public class UserService {
         return userMapper.toDto(user);
     }
 
+    @Cacheable(value = USERS_CACHE, key = "#id", sync = true)
     public UserDtoResponse findById(long id) {
-        UserDtoResponse cachedUser = userCache.get(id);
-        if (cachedUser != null) {
-            return cachedUser;
-        }
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(
-                        String.format(USER_WITH_ID_NOT_FOUND, id)));
-        userCache.put(id, userMapper.toDto(user));
+        User user = negativeCache.findOrThrow(NegativeCache.MISSING_USERS, id,
+                userRepository::findById,
+                () -> new NotFoundException(String.format(USER_WITH_ID_NOT_FOUND, id)));
         return userMapper.toDto(user);
     }
 
@@ -62,13 +84,18 @@ public class UserService {
         }
         User user = userMapper.toEntity(userDtoRequest);
         userRepository.save(user);
+        negativeCache.invalidate(NegativeCache.MISSING_USERS, user.getId());
         return userMapper.toDto(user);
     }
 
+    @CachePut(value = USERS_CACHE, key = "#id")
     public UserDtoResponse updateUser(long id, UserDtoRequest userDtoRequest) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(
                         String.format(USER_WITH_ID_NOT_FOUND, id)));
+        principalCache.evict(user);
+        String previousEmail = user.getEmail();
+        Role previousRole = user.getRole();
 
         if (userDtoRequest.getEmail() != null) {
             user.setEmail(userDtoRequest.getEmail());
@@ -90,17 +117,29 @@ public class UserService {
             user.setPassword(userMapper.encodePassword(userDtoRequest.getPassword()));
         }
         userRepository.save(user);
-        userCache.put(user.getId(), userMapper.toDto(user));
+        // tokens carry the email and role, so they must not outlive a change of either
+        if (!previousEmail.equals(user.getEmail()) || previousRole != user.getRole()
+                || userDtoRequest.getPassword() != null) {
+            tokenDenyList.revokeSubject(previousEmail);
+        }
         return userMapper.toDto(user);
     }
 
+    @CacheEvict(value = USERS_CACHE, key = "#id")
     public void deleteUserById(long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(
                         String.format(USER_WITH_ID_NOT_FOUND, id)));
         user.getGroups().forEach(group -> group.getUsers().remove(user));
-        userCache.remove(id);
         userRepository.deleteById(id);
+        taskListCache.evict(id);
+        principalCache.evict(user);
+        tokenDenyList.revokeSubject(user.getEmail());
+    }
+
+    /** Stores a rehash of an unchanged password, e.g. after the BCrypt cost was recalibrated. */
+    public void replacePasswordHash(long id, String oldHash, String newHash) {
+        userRepository.replacePasswordHash(id, oldHash, newHash);
     }
 
     public List<UserDtoResponse> findUsersByGroup(String groupName) {
@@ -131,21 +170,4 @@ public class UserService {
         group.removeUser(user);
         groupRepository.save(group);
     }
-
-    @Transactional
-    public List<UserDtoResponse> saveAll(List<UserDtoRequest> userDtoRequests) {
-        return userDtoRequests.stream()
-                .map(userDtoRequest -> {
-                    if (userRepository.existsByEmail(userDtoRequest.getEmail())
-                            || userRepository.existsByPhone(userDtoRequest.getPhone())) {
-                        throw new AlreadyExistsException(
-                                "Пользователь с такой-же почтой/телефоном уже существует");
-                    }
-
-                    User user = userMapper.toEntity(userDtoRequest);
-                    userRepository.save(user);
-                    return userMapper.toDto(user);
-                })
-                .toList();
-    }
 }
@@ -0,0 +1,52 @@
+-- Schema as previously generated by hibernate.ddl-auto=update.
+-- Databases created that way are baselined at this version and skip it.
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    phone      VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_phone UNIQUE (phone)
+);
+
+CREATE TABLE groups (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(50)  NOT NULL,
+    description  VARCHAR(200) NOT NULL,
+    created_date DATE
+);
+
+CREATE TABLE user_group (
+    group_id BIGINT NOT NULL,
+    user_id  BIGINT NOT NULL,
+    CONSTRAINT fk_user_group_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_user_group_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE tasks (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         VARCHAR(50)  NOT NULL,
+    content       VARCHAR(255),
+    is_completed  BOOLEAN      NOT NULL,
+    is_important  BOOLEAN      NOT NULL,
+    task_deadline DATE,
+    user_id       BIGINT       NOT NULL,
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE group_tasks (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(50)  NOT NULL,
+    content          VARCHAR(255),
+    is_completed     BOOLEAN      NOT NULL,
+    is_important     BOOLEAN      NOT NULL,
+    task_deadline    DATE,
+    group_id         BIGINT       NOT NULL,
+    assigned_user_id BIGINT,
+    CONSTRAINT fk_group_tasks_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_group_tasks_assigned_user FOREIGN KEY (assigned_user_id) REFERENCES users (id)
+);
@@ -0,0 +1,23 @@
+-- Built CONCURRENTLY so existing tables stay writable; see the .conf file
+-- next to this script. IF NOT EXISTS covers indexes that ddl-auto=update
+-- may already have created from the @Index declarations on Task.
+-- A failed concurrent build leaves an INVALID index behind: drop it before
+-- running the migration again.
+
+-- tasks: every index leads with user_id, so they also serve the foreign key
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id
+    ON tasks (user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_completed_deadline
+    ON tasks (user_id, is_completed, task_deadline, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_deadline
+    ON tasks (user_id, task_deadline, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_group_tasks_group_id
+    ON group_tasks (group_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_group_tasks_assigned_user_id
+    ON group_tasks (assigned_user_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_group_user_id
+    ON user_group (user_id, group_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_group_group_id
+    ON user_group (group_id);
@@ -0,0 +1,7 @@
+-- Users get ids from a sequence instead of an identity column, so Hibernate
+-- can take ids in blocks and batch inserts. INCREMENT BY must match
+-- allocationSize on User.id. The pooled optimizer treats a fetched value as
+-- the top of its block, hence the first value is set MAX(id) + 50.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,5 @@
+-- Same switch as V3 for tasks, so batch creation can use JDBC batching.
+-- INCREMENT BY must match allocationSize on Task.id.
+CREATE SEQUENCE tasks_seq INCREMENT BY 50;
+SELECT setval('tasks_seq', COALESCE(MAX(id), 0) + 50, false) FROM tasks;
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,41 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsUpToFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 3; i++) {
+            sketch.increment(42);
+        }
+        assertEquals(3, sketch.frequency(42));
+
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(42);
+        }
+        assertEquals(15, sketch.frequency(42));
+    }
+
+    @Test
+    void countersAreHalvedAfterSamplePeriod() {
+        int capacity = 64;
+        FrequencySketch sketch = new FrequencySketch(capacity);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(1);
+        }
+        assertEquals(15, sketch.frequency(1));
+
+        // the sample period is ten times the capacity; distinct keys keep adding
+        for (long key = 1000; key < 1000 + 10L * capacity; key++) {
+            sketch.increment(key);
+        }
+
+        assertTrue(sketch.frequency(1) <= 8, "hot key should have aged, was " + sketch.frequency(1));
+        assertTrue(sketch.frequency(1) >= 7);
+    }
+}
@@ -0,0 +1,90 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Hammers the cache from many threads with a key range larger than its
+ * capacity. Each value is its own key, so any torn or misplaced entry shows
+ * up as a value read under the wrong id.
+ */
+class LfuCacheConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 50_000;
+
+    @ParameterizedTest
+    @EnumSource(EvictionPolicy.class)
+    void stripedCacheStaysConsistentUnderContention(EvictionPolicy policy) throws Exception {
+        hammer(new LfuCache<>(1024, policy), 1024, 4096);
+    }
+
+    @ParameterizedTest
+    @EnumSource(EvictionPolicy.class)
+    void singleSegmentStaysConsistentUnderContention(EvictionPolicy policy) throws Exception {
+        hammer(new LfuCache<>(16, policy), 16, 64);
+    }
+
+    private static void hammer(LfuCache<Long> cache, int capacity, int keys) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder gets = new LongAdder();
+        LongAdder puts = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int misplaced = 0;
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        // skewed keys, so some entries become hot and survive eviction
+                        long id = random.nextInt(1 + random.nextInt(keys));
+                        int op = random.nextInt(10);
+                        if (op < 6) {
+                            gets.increment();
+                            Long value = cache.get(id);
+                            if (value != null && value != id) {
+                                misplaced++;
+                            }
+                        } else if (op < 9) {
+                            puts.increment();
+                            cache.put(id, id);
+                        } else {
+                            cache.remove(id);
+                        }
+                    }
+                    return misplaced;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> worker : workers) {
+                assertEquals(0, worker.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        CacheStats stats = cache.stats();
+        assertEquals(gets.sum(), stats.hitCount() + stats.missCount());
+        assertEquals(puts.sum(), stats.putCount());
+        assertTrue(cache.size() <= capacity, "size " + cache.size() + " exceeds " + capacity);
+        List<Long> hottest = cache.hottest(capacity);
+        assertEquals(cache.size(), hottest.size());
+        for (Long value : hottest) {
+            assertEquals(value, cache.get(value));
+        }
+    }
+}
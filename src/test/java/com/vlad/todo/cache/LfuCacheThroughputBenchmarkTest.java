@@ -0,0 +1,109 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Throughput of the striped cache against one segment behind a single lock,
+ * for 1 to 16 threads of mixed reads and writes over a skewed key range.
+ */
+@Tag("benchmark")
+class LfuCacheThroughputBenchmarkTest {
+
+    private static final int CAPACITY = 10_000;
+    private static final long KEYS = 40_000;
+    private static final long DURATION_NANOS = 1_000_000_000L;
+
+    private interface Target {
+        Long get(long id);
+
+        void put(long id, Long value);
+    }
+
+    @Test
+    void throughputHoldsUpWithThreads() throws InterruptedException {
+        int maxThreads = 16;
+        double singleThread = 0;
+        double atMax = 0;
+        for (int threads = 0; threads <= maxThreads; threads = Math.max(1, threads * 2)) {
+            // the first pass with one thread only warms up the JIT
+            boolean warmUp = threads == 0;
+            LfuCache<Long> striped = new LfuCache<>(CAPACITY, EvictionPolicy.LFU);
+            LfuSegment<Long> locked = new LfuSegment<>(CAPACITY, Long.MAX_VALUE, value -> 1, new CacheStats());
+            double stripedOps = run(Math.max(1, threads), new Target() {
+                public Long get(long id) {
+                    return striped.get(id);
+                }
+
+                public void put(long id, Long value) {
+                    striped.put(id, value);
+                }
+            });
+            double lockedOps = run(Math.max(1, threads), new Target() {
+                public Long get(long id) {
+                    return locked.get(id);
+                }
+
+                public void put(long id, Long value) {
+                    locked.put(id, value);
+                }
+            });
+            if (warmUp) {
+                continue;
+            }
+            System.out.printf("%2d threads (%d cores): striped %,.0f ops/s, single lock %,.0f ops/s%n",
+                    threads, Runtime.getRuntime().availableProcessors(), stripedOps, lockedOps);
+            if (threads == 1) {
+                singleThread = stripedOps;
+            }
+            atMax = stripedOps;
+        }
+
+        assertTrue(atMax > singleThread / 2,
+                String.format("%d threads: %,.0f ops/s, 1 thread: %,.0f ops/s", maxThreads, atMax, singleThread));
+    }
+
+    private static double run(int threads, Target target) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ops = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                ready.countDown();
+                long done = 0;
+                while (!stop.get()) {
+                    for (int i = 0; i < 256; i++) {
+                        // squaring skews reads towards low ids
+                        double u = random.nextDouble();
+                        long id = (long) (u * u * KEYS);
+                        if (target.get(id) == null) {
+                            target.put(id, id);
+                        }
+                    }
+                    done += 256;
+                }
+                ops.add(done);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        Thread.sleep(DURATION_NANOS / 1_000_000);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() * 1e9 / (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,83 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cost of an evicting put in a full cache at 1k, 100k and 1M entries, for
+ * the bucket LFU and for the full-scan LFU it replaced.
+ */
+@Tag("benchmark")
+class LfuEvictionBenchmarkTest {
+
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+
+    /** The previous eviction: a scan of every entry for the lowest frequency. */
+    private static final class ScanLfu {
+        final int capacity;
+        final Map<Long, int[]> frequencies = new HashMap<>();
+
+        ScanLfu(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void put(long id) {
+            if (frequencies.size() >= capacity) {
+                Long victim = null;
+                int min = Integer.MAX_VALUE;
+                for (Map.Entry<Long, int[]> entry : frequencies.entrySet()) {
+                    if (entry.getValue()[0] < min) {
+                        min = entry.getValue()[0];
+                        victim = entry.getKey();
+                    }
+                }
+                frequencies.remove(victim);
+            }
+            frequencies.put(id, new int[] {1});
+        }
+    }
+
+    @Test
+    void evictionCostDoesNotGrowWithSize() {
+        double[] bucket = new double[SIZES.length];
+        for (int s = 0; s < SIZES.length; s++) {
+            int size = SIZES[s];
+            LfuSegment<Long> segment = new LfuSegment<>(size, Long.MAX_VALUE, value -> 1, new CacheStats());
+            for (long id = 0; id < size; id++) {
+                segment.put(id, id);
+            }
+            long next = size;
+            double best = Double.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                int ops = 200_000;
+                long start = System.nanoTime();
+                for (int i = 0; i < ops; i++) {
+                    segment.put(next, next);
+                    next++;
+                }
+                best = Math.min(best, (double) (System.nanoTime() - start) / ops);
+            }
+            bucket[s] = best;
+
+            ScanLfu scan = new ScanLfu(size);
+            for (long id = 0; id < size; id++) {
+                scan.put(id);
+            }
+            int ops = Math.max(10, 20_000_000 / size);
+            long start = System.nanoTime();
+            for (int i = 0; i < ops; i++) {
+                scan.put(size + i);
+            }
+            double scanNanos = (double) (System.nanoTime() - start) / ops;
+            System.out.printf("LFU evicting put, %,d entries: buckets %.0f ns/op, full scan %.0f ns/op%n",
+                    size, best, scanNanos);
+        }
+
+        assertTrue(bucket[2] < bucket[0] * 20,
+                String.format("1M entries: %.0f ns/op, 1k entries: %.0f ns/op", bucket[2], bucket[0]));
+    }
+}
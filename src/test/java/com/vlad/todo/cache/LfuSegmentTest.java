@@ -0,0 +1,118 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LfuSegmentTest {
+
+    private final CacheStats stats = new CacheStats();
+
+    private LfuSegment<String> segment(int capacity) {
+        return new LfuSegment<>(capacity, Long.MAX_VALUE, value -> 1, stats);
+    }
+
+    @Test
+    void evictsLeastFrequentlyUsedEntry() {
+        LfuSegment<String> segment = segment(3);
+        segment.put(1, "a");
+        segment.put(2, "b");
+        segment.put(3, "c");
+        segment.get(1);
+        segment.get(3);
+
+        segment.put(4, "d");
+
+        assertNull(segment.get(2));
+        assertEquals("a", segment.get(1));
+        assertEquals("c", segment.get(3));
+        assertEquals("d", segment.get(4));
+        assertEquals(1, stats.evictionCount());
+    }
+
+    @Test
+    void evictsOldestEntryAmongEquallyFrequent() {
+        LfuSegment<String> segment = segment(2);
+        segment.put(1, "a");
+        segment.put(2, "b");
+
+        segment.put(3, "c");
+
+        assertNull(segment.get(1));
+        assertEquals("b", segment.get(2));
+    }
+
+    @Test
+    void updateCountsAsAccess() {
+        LfuSegment<String> segment = segment(2);
+        segment.put(1, "a");
+        segment.put(2, "b");
+
+        assertFalse(segment.put(1, "a2"));
+        assertTrue(segment.put(3, "c"));
+
+        assertEquals("a2", segment.get(1));
+        assertNull(segment.get(2));
+    }
+
+    @Test
+    void evictsUntilWeightFits() {
+        LfuSegment<String> segment = new LfuSegment<>(10, 5, String::length, stats);
+        segment.put(1, "aa");
+        segment.put(2, "bb");
+        segment.get(2);
+
+        segment.put(3, "ccc");
+
+        assertNull(segment.get(1));
+        assertEquals("bb", segment.get(2));
+        assertEquals("ccc", segment.get(3));
+    }
+
+    @Test
+    void visitsEntriesInAscendingFrequency() {
+        LfuSegment<String> segment = segment(4);
+        segment.put(1, "a");
+        segment.put(2, "b");
+        segment.put(3, "c");
+        segment.get(3);
+        segment.get(3);
+        segment.get(1);
+
+        List<String> order = new ArrayList<>();
+        List<Integer> heat = new ArrayList<>();
+        segment.forEach((value, frequency) -> {
+            order.add(value);
+            heat.add(frequency);
+        });
+
+        assertEquals(List.of("b", "a", "c"), order);
+        assertEquals(List.of(1, 2, 3), heat);
+    }
+
+    @Test
+    void removeAndClearKeepBucketsConsistent() {
+        LfuSegment<String> segment = segment(3);
+        segment.put(1, "a");
+        segment.put(2, "b");
+        segment.get(2);
+
+        assertTrue(segment.remove(1));
+        assertFalse(segment.remove(1));
+        segment.put(3, "c");
+        segment.put(4, "d");
+        segment.put(5, "e");
+
+        assertEquals(3, segment.size());
+        assertEquals("b", segment.get(2));
+        segment.clear();
+        assertEquals(0, segment.size());
+        segment.put(6, "f");
+        assertEquals("f", segment.get(6));
+    }
+}
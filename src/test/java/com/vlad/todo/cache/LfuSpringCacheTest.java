@@ -0,0 +1,160 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.config.CacheProperties;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LfuSpringCacheTest {
+
+    private final Queue<Runnable> refreshes = new ArrayDeque<>();
+
+    private LfuSpringCache cache(Duration ttl, Duration refreshAhead) {
+        CacheProperties.Region region = new CacheProperties.Region();
+        region.setCapacity(64);
+        region.setTtl(ttl);
+        region.setRefreshAhead(refreshAhead);
+        return new LfuSpringCache("test", region, refreshes::add, List.of());
+    }
+
+    @Test
+    void concurrentMissesRunLoaderOnce() throws Exception {
+        LfuSpringCache cache = cache(null, null);
+        int threads = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    return cache.get(1L, () -> {
+                        loads.incrementAndGet();
+                        release.await(5, TimeUnit.SECONDS);
+                        return "user-1";
+                    });
+                }));
+            }
+            assertTrue(ready.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("user-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("user-1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void concurrentMissesOnDistinctKeysAreAllCached() throws Exception {
+        LfuSpringCache cache = cache(null, null);
+        int threads = 16;
+        CountDownLatch loading = new CountDownLatch(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long key = i;
+                results.add(pool.submit(() -> cache.get(key, () -> {
+                    // every load is still running while the others start and finish
+                    loading.countDown();
+                    loading.await(5, TimeUnit.SECONDS);
+                    return "user-" + key;
+                })));
+            }
+            for (Future<String> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (long key = 0; key < threads; key++) {
+            assertEquals("user-" + key, cache.get(key, String.class));
+        }
+    }
+
+    @Test
+    void writesToOtherKeysDoNotDropLoad() {
+        LfuSpringCache cache = cache(null, null);
+        cache.put(2L, "other");
+
+        String loaded = cache.get(1L, () -> {
+            cache.put(2L, "other-updated");
+            cache.evict(3L);
+            return "user-1";
+        });
+
+        assertEquals("user-1", loaded);
+        assertEquals("user-1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void loadedValueIsDroppedWhenEvictedDuringLoad() {
+        LfuSpringCache cache = cache(null, null);
+
+        String loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void refreshReplacesValueNearExpiry() {
+        LfuSpringCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.setRefreshLoader(key -> "fresh");
+        cache.put(1L, "old");
+
+        assertEquals("old", cache.get(1L, String.class));
+        assertEquals(1, refreshes.size());
+        refreshes.poll().run();
+
+        assertEquals("fresh", cache.get(1L, String.class));
+    }
+
+    @Test
+    void refreshIsDroppedAfterConcurrentEvict() {
+        LfuSpringCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.setRefreshLoader(key -> "stale");
+        cache.put(1L, "old");
+
+        cache.get(1L);
+        cache.evict(1L);
+        refreshes.poll().run();
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void refreshDoesNotOverwriteConcurrentPut() {
+        LfuSpringCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+        cache.setRefreshLoader(key -> "stale");
+        cache.put(1L, "old");
+
+        cache.get(1L);
+        cache.put(1L, "updated");
+        refreshes.poll().run();
+
+        assertEquals("updated", cache.get(1L, String.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vlad.todo.config.CacheProperties;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NegativeCacheTest {
+
+    private LfuCacheManager cacheManager;
+    private NegativeCache negativeCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new LfuCacheManager(Map.of(NegativeCache.MISSING_USERS, new CacheProperties.Region()));
+        cacheManager.afterPropertiesSet();
+        negativeCache = new NegativeCache(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    void repeatedMissIsAnsweredFromCache() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> negativeCache.findOrThrow(
+                    NegativeCache.MISSING_USERS, 7L, id -> {
+                        lookups.incrementAndGet();
+                        return Optional.empty();
+                    }, IllegalStateException::new));
+        }
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void missIsNotRememberedWhenInvalidatedDuringLookup() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> negativeCache.findOrThrow(
+                NegativeCache.MISSING_USERS, 7L, id -> {
+                    lookups.incrementAndGet();
+                    negativeCache.invalidate(NegativeCache.MISSING_USERS, id);
+                    return Optional.empty();
+                }, IllegalStateException::new));
+        String found = negativeCache.findOrThrow(NegativeCache.MISSING_USERS, 7L, id -> {
+            lookups.incrementAndGet();
+            return Optional.of("user-7");
+        }, IllegalStateException::new);
+
+        assertEquals("user-7", found);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void invalidationOfAnotherIdKeepsMiss() {
+        AtomicInteger lookups = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> negativeCache.findOrThrow(
+                    NegativeCache.MISSING_USERS, 7L, id -> {
+                        lookups.incrementAndGet();
+                        negativeCache.invalidate(NegativeCache.MISSING_USERS, 8L);
+                        return Optional.empty();
+                    }, IllegalStateException::new));
+        }
+
+        assertEquals(1, lookups.get());
+    }
+}
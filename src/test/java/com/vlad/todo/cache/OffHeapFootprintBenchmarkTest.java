@@ -0,0 +1,91 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.dto.UserDtoResponse;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Heap retained by 200k cached users and GC time of a read workload over
+ * them, with all entries on-heap and with the off-heap tier behind a small
+ * on-heap store.
+ */
+@Tag("benchmark")
+class OffHeapFootprintBenchmarkTest {
+
+    private static final int USERS = 200_000;
+    private static final int READS = 2_000_000;
+
+    @Test
+    void offHeapTierKeepsEntriesOutOfHeap() {
+        CacheProperties.Region onHeap = new CacheProperties.Region();
+        onHeap.setCapacity(USERS);
+        CacheProperties.Region tiered = new CacheProperties.Region();
+        tiered.setCapacity(USERS / 100);
+        tiered.setOffHeapBytes(DataSize.ofMegabytes(64));
+
+        long onHeapBytes = measure("on-heap only", onHeap);
+        long tieredBytes = measure("off-heap tier", tiered);
+
+        assertTrue(tieredBytes < onHeapBytes / 2,
+                String.format("heap with off-heap tier %,d B, on-heap only %,d B", tieredBytes, onHeapBytes));
+    }
+
+    private static long measure(String name, CacheProperties.Region region) {
+        long before = usedHeap();
+        LfuSpringCache cache = new LfuSpringCache("users", region, Runnable::run, List.of(new UserDtoCodec()));
+        for (long id = 0; id < USERS; id++) {
+            cache.put(id, user(id));
+        }
+        long retained = usedHeap() - before;
+
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < READS; i++) {
+            cache.get((long) random.nextInt(USERS), UserDtoResponse.class);
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        long gc = gcMillis() - gcBefore;
+
+        System.out.printf("%s: %,d entries retain %,d KiB of heap (%,d KiB off-heap); "
+                        + "%,d reads in %,d ms, %,d ms of it in GC%n",
+                name, USERS, retained / 1024, cache.offHeapUsedBytes() / 1024, READS, elapsed, gc);
+        cache.clear();
+        return retained;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static UserDtoResponse user(long id) {
+        return UserDtoResponse.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .firstName("Имя" + id)
+                .lastName("Фамилия")
+                .phone("+37529" + (1_000_000 + id))
+                .role("USER")
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.dto.UserDtoResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class OffHeapPromoteTest {
+
+    private static CacheProperties.Region region() {
+        CacheProperties.Region region = new CacheProperties.Region();
+        region.setCapacity(16);
+        region.setOffHeapBytes(DataSize.ofMegabytes(2));
+        return region;
+    }
+
+    private static UserDtoResponse user(long id) {
+        return UserDtoResponse.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .firstName("Имя" + id)
+                .lastName("Фамилия")
+                .phone(null)
+                .role("USER")
+                .build();
+    }
+
+    private static void assertUser(long id, UserDtoResponse actual) {
+        UserDtoResponse expected = user(id);
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getFirstName(), actual.getFirstName());
+        assertEquals(expected.getLastName(), actual.getLastName());
+        assertNull(actual.getPhone());
+        assertEquals(expected.getRole(), actual.getRole());
+    }
+
+    @Test
+    void entriesEvictedOnHeapArePromotedFromOffHeap() {
+        LfuSpringCache cache = new LfuSpringCache("users", region(), Runnable::run,
+                List.of(new UserDtoCodec()));
+        for (long id = 1; id <= 200; id++) {
+            cache.put(id, user(id));
+        }
+        assertTrue(cache.size() <= 16);
+        assertEquals(200, cache.offHeapSize());
+
+        for (long id = 1; id <= 200; id++) {
+            assertUser(id, cache.get(id, UserDtoResponse.class));
+        }
+    }
+
+    @Test
+    void promotionIsKeptWhileOtherKeysAreWritten() {
+        UserDtoCodec delegate = new UserDtoCodec();
+        LfuSpringCache[] holder = new LfuSpringCache[1];
+        RecordCodec<UserDtoResponse> writingCodec = new RecordCodec<>() {
+            @Override
+            public boolean supports(Object value) {
+                return delegate.supports(value);
+            }
+
+            @Override
+            public void write(UserDtoResponse value, RecordWriter out) {
+                delegate.write(value, out);
+            }
+
+            @Override
+            public UserDtoResponse read(ByteBuffer in) {
+                UserDtoResponse value = delegate.read(in);
+                holder[0].evict(value.getId() + 1000);
+                return value;
+            }
+        };
+        LfuSpringCache cache = new LfuSpringCache("users", region(), Runnable::run, List.of(writingCodec));
+        holder[0] = cache;
+        for (long id = 1; id <= 200; id++) {
+            cache.put(id, user(id));
+        }
+        long promoted = 200;
+        while (cache.getNativeCache().lookup(promoted) != null) {
+            promoted--;
+        }
+
+        assertUser(promoted, cache.get(promoted, UserDtoResponse.class));
+        assertNotNull(cache.getNativeCache().lookup(promoted));
+    }
+
+    @Test
+    void evictDuringPromotionDoesNotLeaveStaleCopy() {
+        UserDtoCodec delegate = new UserDtoCodec();
+        LfuSpringCache[] holder = new LfuSpringCache[1];
+        RecordCodec<UserDtoResponse> evictingCodec = new RecordCodec<>() {
+            @Override
+            public boolean supports(Object value) {
+                return delegate.supports(value);
+            }
+
+            @Override
+            public void write(UserDtoResponse value, RecordWriter out) {
+                delegate.write(value, out);
+            }
+
+            @Override
+            public UserDtoResponse read(ByteBuffer in) {
+                UserDtoResponse value = delegate.read(in);
+                holder[0].evict(value.getId());
+                return value;
+            }
+        };
+        LfuSpringCache cache = new LfuSpringCache("users", region(), Runnable::run,
+                List.of(evictingCodec));
+        holder[0] = cache;
+        for (long id = 1; id <= 200; id++) {
+            cache.put(id, user(id));
+        }
+        long promoted = 200;
+        while (cache.getNativeCache().lookup(promoted) != null) {
+            promoted--;
+        }
+
+        assertUser(promoted, cache.get(promoted, UserDtoResponse.class));
+        assertNull(cache.getNativeCache().lookup(promoted));
+        assertNull(cache.get(promoted));
+    }
+}
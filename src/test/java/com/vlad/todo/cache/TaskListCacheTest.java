@@ -0,0 +1,62 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.dto.TaskDtoResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskListCacheTest {
+
+    private LfuCacheManager cacheManager;
+    private TaskListCache taskListCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new LfuCacheManager(Map.of(TaskListCache.CACHE_NAME, new CacheProperties.Region()));
+        cacheManager.afterPropertiesSet();
+        taskListCache = new TaskListCache(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    void listIsDroppedWhenItsUserIsEvictedDuringLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        taskListCache.get(1L, () -> {
+            loads.incrementAndGet();
+            taskListCache.evict(1L);
+            return List.of();
+        });
+        taskListCache.get(1L, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictOfAnotherUserDoesNotDropLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            taskListCache.get(1L, () -> {
+                loads.incrementAndGet();
+                taskListCache.evict(2L);
+                return List.of(new TaskDtoResponse());
+            });
+        }
+
+        assertEquals(1, loads.get());
+    }
+}
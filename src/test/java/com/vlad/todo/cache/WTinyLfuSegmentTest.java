@@ -0,0 +1,107 @@
+package com.vlad.todo.cache;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class WTinyLfuSegmentTest {
+
+    private static final int CAPACITY = 200;
+
+    private static CacheSegment<Long> segment(EvictionPolicy policy) {
+        return policy.newSegment(CAPACITY, Long.MAX_VALUE, value -> 1, new CacheStats());
+    }
+
+    /** Reads every key, loading it on a miss; returns the number of hits. */
+    private static int replay(CacheSegment<Long> segment, long[] keys) {
+        int hits = 0;
+        for (long key : keys) {
+            if (segment.get(key) != null) {
+                hits++;
+            } else {
+                segment.put(key, key);
+            }
+        }
+        return hits;
+    }
+
+    private static long[] hotSet(int size, int rounds) {
+        long[] keys = new long[size * rounds];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i % size;
+        }
+        return keys;
+    }
+
+    private static long[] scan(long from, int length) {
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = from + i;
+        }
+        return keys;
+    }
+
+    @Test
+    void oneOffScanDoesNotEvictHotSet() {
+        CacheSegment<Long> segment = segment(EvictionPolicy.W_TINY_LFU);
+        replay(segment, hotSet(150, 5));
+
+        // the scan runs alongside regular traffic: one hot read per scanned key
+        long[] scan = scan(1_000_000, 10 * CAPACITY);
+        long[] mixed = new long[2 * scan.length];
+        for (int i = 0; i < scan.length; i++) {
+            mixed[2 * i] = scan[i];
+            mixed[2 * i + 1] = i % 150;
+        }
+        replay(segment, mixed);
+
+        for (long key = 0; key < 150; key++) {
+            assertNotNull(segment.get(key), "hot key " + key + " was evicted by the scan");
+        }
+    }
+
+    @Test
+    void newHotSetIsAdmittedAfterOldOneCools() {
+        CacheSegment<Long> segment = segment(EvictionPolicy.W_TINY_LFU);
+        replay(segment, hotSet(150, 20));
+
+        long[] next = new long[150 * 20];
+        for (int i = 0; i < next.length; i++) {
+            next[i] = 5_000 + i % 150;
+        }
+        replay(segment, next);
+
+        int resident = 0;
+        for (long key = 5_000; key < 5_150; key++) {
+            resident += segment.get(key) != null ? 1 : 0;
+        }
+        assertTrue(resident > 120, "only " + resident + " of the new hot keys are cached");
+    }
+
+    @Test
+    void hitRatioBeatsLfuWhenPopularityShifts() {
+        // Zipf-like reads over a key space that moves every phase, with scans in between
+        Random random = new Random(7);
+        int phases = 5;
+        int readsPerPhase = 20_000;
+        long[] trace = new long[phases * (readsPerPhase + CAPACITY)];
+        int n = 0;
+        for (int phase = 0; phase < phases; phase++) {
+            long base = phase * 100_000L;
+            for (int i = 0; i < readsPerPhase; i++) {
+                trace[n++] = base + (long) Math.floor(Math.pow(1000, random.nextDouble())) - 1;
+            }
+            for (int i = 0; i < CAPACITY; i++) {
+                trace[n++] = 10_000_000L + phase * CAPACITY + i;
+            }
+        }
+
+        double tinyLfu = (double) replay(segment(EvictionPolicy.W_TINY_LFU), trace) / trace.length;
+        double lfu = (double) replay(segment(EvictionPolicy.LFU), trace) / trace.length;
+
+        assertTrue(tinyLfu > lfu + 0.05,
+                String.format("W-TinyLFU hit ratio %.3f, LFU %.3f", tinyLfu, lfu));
+    }
+}
@@ -0,0 +1,131 @@
+package com.vlad.todo.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.exception.InvalidInputException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PageCursorTest {
+
+    private record Row(LocalDate deadline, long id) {
+    }
+
+    @Test
+    void idCursorRoundTrips() {
+        PageCursor cursor = PageCursor.decode(PageCursor.afterId(42).encode());
+
+        assertTrue(cursor.isById());
+        assertEquals(42, cursor.getId());
+        assertEquals(42, PageCursor.decodeId(PageCursor.afterId(42).encode()));
+    }
+
+    @Test
+    void deadlineCursorRoundTrips() {
+        PageCursor cursor = PageCursor.decode(PageCursor.afterDeadline(LocalDate.of(2030, 5, 1), 7).encode());
+
+        assertTrue(cursor.isWithDeadline());
+        assertEquals(LocalDate.of(2030, 5, 1), cursor.getDeadline());
+        assertEquals(7, cursor.getId());
+
+        PageCursor noDeadline = PageCursor.decode(PageCursor.afterDeadline(null, 9).encode());
+        assertFalse(noDeadline.isWithDeadline());
+        assertFalse(noDeadline.isById());
+        assertNull(noDeadline.getDeadline());
+        assertEquals(9, noDeadline.getId());
+    }
+
+    @Test
+    void missingCursorStartsFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+        assertEquals(0, PageCursor.decodeId(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "eDox", "aTphYmM", "ZDoyMDMwLTEzLTAxOjE", "aToxOjI"})
+    void tamperedCursorIsRejected(String value) {
+        assertThrows(InvalidInputException.class, () -> PageCursor.decode(value));
+    }
+
+    @Test
+    void deadlineCursorIsRejectedForIdListing() {
+        String cursor = PageCursor.afterDeadline(LocalDate.of(2030, 1, 1), 1).encode();
+
+        assertThrows(InvalidInputException.class, () -> PageCursor.decodeId(cursor));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPage<Long> page = KeysetPage.of(List.of(1L, 2L), 2, PageCursor::afterId);
+
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertNull(page.getNextCursor());
+        assertNull(page.toResponse().getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void extraRowIsCutAndBecomesCursor() {
+        KeysetPage<Long> page = KeysetPage.of(List.of(1L, 2L, 3L), 2, PageCursor::afterId);
+
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertEquals(2, PageCursor.decodeId(page.getNextCursor()));
+        assertEquals(page.getNextCursor(), page.toResponse().getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void limitIsValidated() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.limit(null));
+        assertEquals(KeysetPage.MAX_LIMIT, KeysetPage.limit(KeysetPage.MAX_LIMIT));
+        assertThrows(InvalidInputException.class, () -> KeysetPage.limit(0));
+        assertThrows(InvalidInputException.class, () -> KeysetPage.limit(KeysetPage.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void pagesOverEqualDeadlinesVisitEveryRowOnce() {
+        // many rows share a deadline, so only the id can tell where a page ended
+        List<Row> rows = new ArrayList<>();
+        for (long id = 1; id <= 23; id++) {
+            rows.add(new Row(id % 3 == 0 ? null : LocalDate.of(2030, 1, 1 + (int) (id % 2)), id));
+        }
+        rows.sort(Comparator.comparing(Row::deadline, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Row::id));
+
+        List<Row> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageCursor after = PageCursor.decode(cursor);
+            List<Row> fetched = rows.stream().filter(row -> isAfter(row, after)).limit(5 + 1).toList();
+            KeysetPage<Row> page = KeysetPage.of(fetched, 5,
+                    row -> PageCursor.afterDeadline(row.deadline(), row.id()));
+            visited.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(rows, visited);
+    }
+
+    /** Same condition as the deadline keyset specification, over an in-memory row. */
+    private static boolean isAfter(Row row, PageCursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        if (!cursor.isWithDeadline()) {
+            return row.deadline() == null && row.id() > cursor.getId();
+        }
+        if (row.deadline() == null) {
+            return true;
+        }
+        int byDeadline = row.deadline().compareTo(cursor.getDeadline());
+        return byDeadline > 0 || byDeadline == 0 && row.id() > cursor.getId();
+    }
+}
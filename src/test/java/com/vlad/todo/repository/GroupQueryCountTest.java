@@ -0,0 +1,141 @@
+package com.vlad.todo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vlad.todo.model.Group;
+import com.vlad.todo.model.GroupTask;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Counts the SQL statements behind the group pages, so a mapping change that
+ * brings back one query per group or per row fails here.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GroupQueryCountTest {
+
+    private static final int GROUPS = 5;
+    private static final int MEMBERS = 4;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupTaskRepository groupTaskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User member;
+    private Group firstGroup;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestPostgres.newDatabase("group_query_count");
+        registry.add("spring.datasource.url", () -> TestPostgres.jdbcUrl("group_query_count"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        int phone = 0;
+        for (int g = 0; g < GROUPS; g++) {
+            Group group = new Group();
+            group.setName("Группа " + g);
+            group.setDescription("Описание");
+            List<User> users = new ArrayList<>();
+            for (int u = 0; u < MEMBERS; u++) {
+                User user = new User();
+                user.setEmail("user" + phone + "@example.com");
+                user.setPassword("hash");
+                user.setFirstName("Имя");
+                user.setLastName("Фамилия");
+                user.setPhone("+37529" + phone++);
+                user.setRole(Role.USER);
+                entityManager.persist(user);
+                group.addUser(user);
+                users.add(user);
+            }
+            entityManager.persist(group);
+            for (User user : users) {
+                GroupTask task = new GroupTask();
+                task.setTitle("Задача");
+                task.setGroup(group);
+                task.setAssignedUser(user);
+                entityManager.persist(task);
+            }
+            if (g == 0) {
+                firstGroup = group;
+                member = users.get(0);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void groupPageWithMembersTakesTwoQueries() {
+        List<Long> ids = groupRepository.findPageIds(0, Limit.of(GROUPS + 1));
+        List<Group> groups = groupRepository.findWithUsersByIdInOrderByIdAsc(ids);
+        int members = groups.stream().mapToInt(group -> countMembers(group.getUsers())).sum();
+
+        assertEquals(GROUPS, groups.size());
+        assertEquals(GROUPS * MEMBERS, members);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void memberGroupPageTakesTwoQueries() {
+        List<Long> ids = groupRepository.findPageIdsByMember(member.getId(), 0, Limit.of(GROUPS + 1));
+        List<Group> groups = groupRepository.findWithUsersByIdInOrderByIdAsc(ids);
+        int members = groups.stream().mapToInt(group -> countMembers(group.getUsers())).sum();
+
+        assertEquals(1, groups.size());
+        assertEquals(MEMBERS, members);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void groupTaskPageLoadsAssigneesInSameQuery() {
+        List<GroupTask> tasks = groupTaskRepository.findByGroupIdAndIdGreaterThanOrderByIdAsc(
+                firstGroup.getId(), 0, Limit.of(MEMBERS + 1));
+        List<String> assignees = tasks.stream().map(task -> task.getAssignedUser().getFirstName()).toList();
+
+        assertEquals(Collections.nCopies(MEMBERS, "Имя"), assignees);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static int countMembers(List<User> users) {
+        int count = 0;
+        for (User user : users) {
+            count += user.getEmail() == null ? 0 : 1;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,100 @@
+package com.vlad.todo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SchemaMigrationTest {
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = TestPostgres.newDatabase("schema_migration");
+        flyway().migrate();
+    }
+
+    private static Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load();
+    }
+
+    @Test
+    void allMigrationsAreApplied() {
+        assertEquals(0, flyway().info().pending().length);
+        assertEquals("4", flyway().info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void foreignKeyIndexesExistAndAreValid() throws SQLException {
+        Set<String> indexes = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                     WHERE i.indisvalid AND c.relname LIKE 'idx_%'""")) {
+            while (rs.next()) {
+                indexes.add(rs.getString(1));
+            }
+        }
+        assertEquals(Set.of("idx_tasks_user_id", "idx_tasks_user_completed_deadline",
+                "idx_tasks_user_deadline", "idx_group_tasks_group_id",
+                "idx_group_tasks_assigned_user_id", "idx_user_group_user_id",
+                "idx_user_group_group_id"), indexes);
+    }
+
+    @Test
+    void keysetPageOfUserTasksUsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = 1 AND id > 100 ORDER BY id LIMIT 51""");
+        assertTrue(plan.contains("idx_tasks_user_id"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void deadlinePageWithCompletedFilterIsReadInIndexOrder() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM tasks WHERE user_id = 1 AND is_completed = false
+                AND (task_deadline > '2026-01-01' OR (task_deadline = '2026-01-01' AND id > 100))
+                ORDER BY task_deadline, id LIMIT 51""");
+        assertTrue(plan.contains("Index Scan using idx_tasks_user_"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void groupTasksOfAssigneeUseIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM group_tasks WHERE assigned_user_id = 1 AND id > 0 ORDER BY id LIMIT 51""");
+        assertTrue(plan.contains("idx_group_tasks_assigned_user_id"), plan);
+    }
+
+    /** Plan with sequential scans disabled, as the tables are empty here. */
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.vlad.todo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * One page of a user's open tasks by deadline, read through the composite
+ * index, against the old path that fetched every task and filtered in Java.
+ * Table size is set with {@code -Dbenchmark.tasks}.
+ */
+@Tag("benchmark")
+class TaskFilterBenchmarkTest {
+
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 1_000_000);
+    private static final int USERS = 1_000;
+    private static final int RUNS = 5;
+
+    private static final String PAGE = """
+            SELECT * FROM tasks WHERE user_id = ? AND is_completed = false
+            AND task_deadline BETWEEN '2026-03-01' AND '2026-06-30'
+            ORDER BY task_deadline, id LIMIT 51""";
+
+    private static DataSource dataSource;
+    private static volatile long sink;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        dataSource = TestPostgres.newDatabase("task_filter_benchmark");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (id, email, password, first_name, last_name, phone, role)
+                    SELECT i, 'user' || i || '@test.com', 'x', 'First', 'Last', '+375' || i, 'USER'
+                    FROM generate_series(1, %d) i""".formatted(USERS));
+            statement.execute("""
+                    INSERT INTO tasks (id, title, content, is_completed, is_important, task_deadline, user_id)
+                    SELECT i, 'Task ' || i, 'content', i %% 3 = 0, i %% 7 = 0,
+                           DATE '2026-01-01' + (i %% 365), 1 + i %% %d
+                    FROM generate_series(1, %d) i""".formatted(USERS, TASKS));
+            statement.execute("VACUUM ANALYZE tasks");
+        }
+        System.out.printf("seeded %,d tasks in %,d ms%n", TASKS, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Test
+    void indexedFilterBeatsFullFetch() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long indexed = median(() -> page(connection, 42));
+            long fullFetch = median(() -> fetchAllAndFilter(connection, 42));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_indexscan = off");
+                statement.execute("SET LOCAL enable_bitmapscan = off");
+            }
+            long seqScan = median(() -> page(connection, 42));
+            connection.rollback();
+
+            System.out.printf("%,d tasks: indexed page %,d us, same query without indexes %,d us, "
+                    + "fetch all and filter in Java %,d us%n", TASKS, indexed / 1_000, seqScan / 1_000,
+                    fullFetch / 1_000);
+            assertTrue(indexed * 10 < seqScan,
+                    String.format("indexed %,d ns, sequential scan %,d ns", indexed, seqScan));
+            assertTrue(indexed * 10 < fullFetch,
+                    String.format("indexed %,d ns, full fetch %,d ns", indexed, fullFetch));
+        }
+    }
+
+    private static int page(Connection connection, long userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(PAGE)) {
+            statement.setLong(1, userId);
+            int rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static int fetchAllAndFilter(Connection connection, long userId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM tasks")) {
+            statement.setFetchSize(10_000);
+            int rows = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Date deadline = rs.getDate("task_deadline");
+                    if (rs.getLong("user_id") == userId && !rs.getBoolean("is_completed")
+                            && deadline.toLocalDate().getMonthValue() >= 3
+                            && deadline.toLocalDate().getMonthValue() <= 6) {
+                        rows++;
+                    }
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static long median(Query query) throws SQLException {
+        query.run();
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            sink += query.run();
+            times[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        int run() throws SQLException;
+    }
+}
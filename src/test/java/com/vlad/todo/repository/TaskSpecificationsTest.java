@@ -0,0 +1,151 @@
+package com.vlad.todo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vlad.todo.dto.TaskFilter;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.Task;
+import com.vlad.todo.model.User;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskSpecificationsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User other;
+    private final List<Task> ownerTasks = new ArrayList<>();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        TestPostgres.newDatabase("task_specifications");
+        registry.add("spring.datasource.url", () -> TestPostgres.jdbcUrl("task_specifications"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner@example.com", "+375291");
+        other = user("other@example.com", "+375292");
+        // deadlines repeat so that the keyset has to break ties by id
+        LocalDate[] deadlines = {DAY.plusDays(2), null, DAY, DAY.plusDays(2), null, DAY.plusDays(1), DAY};
+        for (int i = 0; i < deadlines.length; i++) {
+            ownerTasks.add(task(owner, "Задача " + i, i % 2 == 0, i % 3 == 0, deadlines[i]));
+        }
+        task(other, "Чужая", true, true, DAY);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User user(String email, String phone) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setFirstName("Имя");
+        user.setLastName("Фамилия");
+        user.setPhone(phone);
+        user.setRole(Role.USER);
+        return entityManager.persist(user);
+    }
+
+    private Task task(User user, String title, boolean completed, boolean important, LocalDate deadline) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setIsCompleted(completed);
+        task.setIsImportant(important);
+        task.setDeadlineDate(deadline);
+        task.setUser(user);
+        return entityManager.persist(task);
+    }
+
+    private List<Long> ids(Specification<Task> spec, Sort sort) {
+        return taskRepository.findBy(spec, query -> query.sortBy(sort).all()).stream()
+                .map(Task::getId)
+                .toList();
+    }
+
+    @Test
+    void emptyFilterMatchesEverything() {
+        assertEquals(8, ids(TaskSpecifications.matching(new TaskFilter()), Sort.by("id")).size());
+    }
+
+    @Test
+    void filterCombinesOwnerStatusAndDeadlineRange() {
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(owner.getId());
+        filter.setCompleted(true);
+        filter.setDeadlineFrom(DAY);
+        filter.setDeadlineTo(DAY.plusDays(1));
+
+        List<Long> expected = ownerTasks.stream()
+                .filter(Task::getIsCompleted)
+                .filter(t -> t.getDeadlineDate() != null && !t.getDeadlineDate().isAfter(DAY.plusDays(1)))
+                .map(Task::getId)
+                .toList();
+        assertEquals(expected, ids(TaskSpecifications.matching(filter), Sort.by("id")));
+    }
+
+    @Test
+    void importantFilterExcludesOtherOwners() {
+        TaskFilter filter = new TaskFilter();
+        filter.setUserId(owner.getId());
+        filter.setImportant(true);
+
+        List<Long> expected = ownerTasks.stream()
+                .filter(Task::getIsImportant)
+                .map(Task::getId)
+                .toList();
+        assertEquals(expected, ids(TaskSpecifications.matching(filter), Sort.by("id")));
+    }
+
+    @Test
+    void keysetByDeadlineVisitsEveryTaskOnce() {
+        Specification<Task> mine = TaskSpecifications.ownedBy(owner.getId());
+        Sort byDeadline = Sort.by("deadlineDate", "id");
+        List<Long> visited = new ArrayList<>();
+        Task last = null;
+        while (true) {
+            Specification<Task> dated = mine.and(TaskSpecifications.hasDeadline());
+            if (last != null) {
+                dated = dated.and(TaskSpecifications.deadlineAfter(last.getDeadlineDate(), last.getId()));
+            }
+            List<Task> page = taskRepository.findBy(dated, query -> query.sortBy(byDeadline).limit(2).all());
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(task -> visited.add(task.getId()));
+            last = page.get(page.size() - 1);
+        }
+        visited.addAll(ids(mine.and(TaskSpecifications.hasNoDeadline())
+                .and(TaskSpecifications.idAfter(0)), Sort.by("id")));
+
+        List<Long> expected = ownerTasks.stream()
+                .sorted(Comparator.comparing(Task::getDeadlineDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Task::getId))
+                .map(Task::getId)
+                .toList();
+        assertEquals(expected, visited);
+    }
+}
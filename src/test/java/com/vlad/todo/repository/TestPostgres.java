@@ -0,0 +1,52 @@
+package com.vlad.todo.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.sql.DataSource;
+
+/**
+ * Real PostgreSQL for tests that depend on its SQL and planner, started once
+ * per test JVM from the binaries shipped with embedded-postgres.
+ */
+final class TestPostgres {
+
+    private static EmbeddedPostgres postgres;
+
+    private TestPostgres() {
+    }
+
+    static synchronized EmbeddedPostgres get() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ex) {
+                    // the JVM is going away anyway
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    /** A fresh, empty database, so tests do not see each other's schema. */
+    static DataSource newDatabase(String name) {
+        DataSource admin = get().getPostgresDatabase();
+        try (var connection = admin.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + name);
+            statement.execute("CREATE DATABASE " + name);
+        } catch (java.sql.SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return get().getDatabase("postgres", name);
+    }
+
+    static String jdbcUrl(String name) {
+        return get().getJdbcUrl("postgres", name);
+    }
+}
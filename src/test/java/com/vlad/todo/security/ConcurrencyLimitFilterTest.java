@@ -0,0 +1,133 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.todo.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+    private static ConcurrencyLimitFilter filter(int limit, double bulkShare) {
+        ConcurrencyLimitProperties.Lane bulk = new ConcurrencyLimitProperties.Lane();
+        bulk.setPattern("/users/saveAll");
+        bulk.setMethod("POST");
+        bulk.setShare(bulkShare);
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(limit);
+        properties.setMinLimit(1);
+        properties.setDefaultShare(1.0);
+        properties.setLanes(List.of(bulk));
+        return new ConcurrencyLimitFilter(properties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    /**
+     * Sends the requests so that each one is still in progress while the
+     * next is filtered, and returns their statuses in order.
+     */
+    private static List<Integer> nested(ConcurrencyLimitFilter filter, List<MockHttpServletRequest> requests)
+            throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        send(filter, requests, 0, statuses);
+        return statuses;
+    }
+
+    private static void send(ConcurrencyLimitFilter filter, List<MockHttpServletRequest> requests, int i,
+                             List<Integer> statuses) throws Exception {
+        if (i == requests.size()) {
+            return;
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int slot = statuses.size();
+        statuses.add(0);
+        FilterChain chain = (req, res) -> {
+            try {
+                send(filter, requests, i + 1, statuses);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+        filter.doFilter(requests.get(i), response, chain);
+        if (response.getStatus() != 200) {
+            statuses.set(slot, response.getStatus());
+            send(filter, requests, i + 1, statuses);
+        } else {
+            statuses.set(slot, 200);
+        }
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/tasks");
+    }
+
+    private static MockHttpServletRequest bulk() {
+        return new MockHttpServletRequest("POST", "/users/saveAll");
+    }
+
+    @Test
+    void requestsOverLimitAreShed() throws Exception {
+        ConcurrencyLimitFilter filter = filter(3, 1.0);
+
+        assertEquals(List.of(200, 200, 200, 503, 503),
+                nested(filter, List.of(get(), get(), get(), get(), get())));
+    }
+
+    @Test
+    void slotsAreReleasedWhenRequestsComplete() throws Exception {
+        ConcurrencyLimitFilter filter = filter(2, 1.0);
+        nested(filter, List.of(get(), get(), get()));
+
+        assertEquals(List.of(200, 200), nested(filter, List.of(get(), get())));
+    }
+
+    @Test
+    void lowPriorityLaneIsShedFirst() throws Exception {
+        ConcurrencyLimitFilter filter = filter(4, 0.5);
+
+        assertEquals(List.of(200, 200, 503, 200),
+                nested(filter, List.of(get(), get(), bulk(), get())));
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() throws InterruptedException {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 200, 1.5);
+        window(limit, 1_000_000L, 20);
+        window(limit, 100_000_000L, 20);
+
+        assertTrue(limit.limit() < 20, "limit " + limit.limit());
+        assertTrue(limit.limit() >= 5);
+    }
+
+    @Test
+    void limitGrowsOnlyWhileMostSlotsAreUsed() throws InterruptedException {
+        GradientConcurrencyLimit busy = new GradientConcurrencyLimit(100, 5, 200, 1.5);
+        GradientConcurrencyLimit idle = new GradientConcurrencyLimit(100, 5, 200, 1.5);
+        for (int i = 0; i < 2; i++) {
+            Thread.sleep(1_050);
+            samples(busy, 1_000_000L, 100);
+            samples(idle, 1_000_000L, 10);
+        }
+
+        assertTrue(busy.limit() > 100, "limit " + busy.limit());
+        assertEquals(100, idle.limit());
+    }
+
+    /** Waits for the next window and records enough samples to close it. */
+    private static void window(GradientConcurrencyLimit limit, long rttNanos, int inFlight)
+            throws InterruptedException {
+        Thread.sleep(1_050);
+        samples(limit, rttNanos, inFlight);
+    }
+
+    private static void samples(GradientConcurrencyLimit limit, long rttNanos, int inFlight) {
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(rttNanos, inFlight);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.todo.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Goodput (responses within the client deadline) when the database slows
+ * down tenfold, with and without the concurrency limiter. The database is a
+ * pool of connections each held for the query time; clients send requests
+ * back to back and back off briefly after a 503.
+ */
+@Tag("benchmark")
+class ConcurrencyLimitGoodputBenchmarkTest {
+
+    private static final int CLIENTS = 200;
+    private static final int CONNECTIONS = 10;
+    private static final long FAST_QUERY_MILLIS = 2;
+    private static final long SLOW_QUERY_MILLIS = 20;
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long WARM_UP_MILLIS = 3_000;
+    private static final long SLOWDOWN_MILLIS = 8_000;
+
+    @Test
+    void limiterKeepsGoodputDuringDatabaseSlowdown() throws InterruptedException {
+        double without = goodput(false);
+        double with = goodput(true);
+
+        System.out.printf("goodput during slowdown: without limiter %,.0f req/s, with limiter %,.0f req/s%n",
+                without, with);
+        assertTrue(with > without * 2,
+                String.format("with limiter %,.0f req/s, without %,.0f req/s", with, without));
+    }
+
+    private static double goodput(boolean limiterEnabled) throws InterruptedException {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(limiterEnabled);
+        properties.setDefaultShare(1.0);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties,
+                new ObjectMapper().findAndRegisterModules());
+
+        Semaphore connections = new Semaphore(CONNECTIONS, true);
+        AtomicLong queryMillis = new AtomicLong(FAST_QUERY_MILLIS);
+        AtomicBoolean measuring = new AtomicBoolean();
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder good = new LongAdder();
+        LongAdder late = new LongAdder();
+        LongAdder shed = new LongAdder();
+        FilterChain database = (request, response) -> {
+            connections.acquireUninterruptibly();
+            try {
+                Thread.sleep(queryMillis.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                connections.release();
+            }
+        };
+
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Thread client = new Thread(() -> {
+                while (!stop.get()) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    long start = System.nanoTime();
+                    try {
+                        filter.doFilter(request, response, database);
+                        if (response.getStatus() == 503) {
+                            if (measuring.get()) {
+                                shed.increment();
+                            }
+                            Thread.sleep(10);
+                        } else if (measuring.get()) {
+                            (System.nanoTime() - start <= DEADLINE_NANOS ? good : late).increment();
+                        }
+                    } catch (InterruptedException ex) {
+                        return;
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            });
+            clients.add(client);
+            client.start();
+        }
+
+        Thread.sleep(WARM_UP_MILLIS);
+        queryMillis.set(SLOW_QUERY_MILLIS);
+        // give the limiter a few windows to react before measuring
+        Thread.sleep(SLOWDOWN_MILLIS / 2);
+        measuring.set(true);
+        long start = System.nanoTime();
+        Thread.sleep(SLOWDOWN_MILLIS / 2);
+        measuring.set(false);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stop.set(true);
+        for (Thread client : clients) {
+            client.join();
+        }
+        System.out.printf("limiter %s: %,.0f good, %,.0f late, %,.0f shed req/s%n",
+                limiterEnabled ? "on" : "off", good.sum() / seconds, late.sum() / seconds, shed.sum() / seconds);
+        return good.sum() / seconds;
+    }
+}
@@ -0,0 +1,102 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vlad.todo.exception.InvalidInputException;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.GroupRepository;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class CurrentUserTest {
+
+    private final GroupRepository groupRepository = mock(GroupRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void identityComesFromPrincipalWithoutQueries() {
+        authenticate(7L, Role.ADMIN);
+        CurrentUser currentUser = new CurrentUser(groupRepository);
+
+        assertEquals(7L, currentUser.getId());
+        assertEquals("user7@example.com", currentUser.getEmail());
+        assertTrue(currentUser.isAdmin());
+        verify(groupRepository, never()).findIdsByUserId(7L);
+    }
+
+    @Test
+    void groupIdsAreLoadedOnceOnFirstUse() {
+        authenticate(7L, Role.USER);
+        when(groupRepository.findIdsByUserId(7L)).thenReturn(Set.of(1L, 2L));
+        CurrentUser currentUser = new CurrentUser(groupRepository);
+
+        assertTrue(currentUser.isMemberOf(1L));
+        assertFalse(currentUser.isMemberOf(3L));
+        assertEquals(Set.of(1L, 2L), currentUser.getGroupIds());
+        verify(groupRepository, times(1)).findIdsByUserId(7L);
+    }
+
+    @Test
+    void anonymousRequestIsRejected() {
+        CurrentUser currentUser = new CurrentUser(groupRepository);
+
+        assertThrows(InvalidInputException.class, currentUser::getId);
+    }
+
+    @Test
+    void eachRequestGetsItsOwnInstance() {
+        when(groupRepository.findIdsByUserId(1L)).thenReturn(Set.of(10L));
+        when(groupRepository.findIdsByUserId(2L)).thenReturn(Set.of(20L));
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+            context.registerBean(GroupRepository.class, () -> groupRepository);
+            context.register(CurrentUser.class);
+            context.refresh();
+            CurrentUser currentUser = context.getBean(CurrentUser.class);
+
+            inRequest(1L);
+            assertEquals(Set.of(10L), currentUser.getGroupIds());
+            inRequest(2L);
+            assertEquals(2L, currentUser.getId());
+            assertEquals(Set.of(20L), currentUser.getGroupIds());
+        }
+    }
+
+    private static void inRequest(long userId) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authenticate(userId, Role.USER);
+    }
+
+    private static void authenticate(long userId, Role role) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("user" + userId + "@example.com");
+        user.setRole(role);
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
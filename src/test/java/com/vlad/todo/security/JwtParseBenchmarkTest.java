@@ -0,0 +1,76 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Token handling cost per request: the former two parser builds and two
+ * verifications (email, then role), one verification with the shared parser,
+ * and a hit in the verified-token cache.
+ */
+@Tag("benchmark")
+class JwtParseBenchmarkTest {
+
+    private static final int OPS = 5_000;
+
+    // keeps the JIT from dropping the measured calls
+    private static volatile int sink;
+
+    @Test
+    void cachedParseIsCheaperThanVerifyingTwice() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        SigningKeyRing keyRing = new SigningKeyRing(properties);
+        LfuCacheManager cacheManager = new LfuCacheManager(
+                Map.of(JwtProvider.TOKENS_CACHE, new CacheProperties.Region()));
+        cacheManager.afterPropertiesSet();
+        try {
+            JwtProvider provider = new JwtProvider(keyRing, cacheManager);
+            String token = provider.generateToken(1L, "user@example.com", "USER");
+            Key key = keyRing.current().getKey();
+
+            double before = nanosPerOp(i -> {
+                Claims email = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+                Claims role = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+                return email.getSubject().length() + role.get("role", String.class).length();
+            });
+            double verified = nanosPerOp(i -> {
+                cacheManager.getLfuCache(JwtProvider.TOKENS_CACHE).evict(token);
+                return provider.parse(token).getSubject().length();
+            });
+            double cached = nanosPerOp(i -> provider.parse(token).getSubject().length());
+
+            System.out.printf("JWT per request: two parsers and verifications %,.0f ns, "
+                    + "one verification %,.0f ns, cache hit %,.0f ns%n", before, verified, cached);
+            assertTrue(cached * 5 < before,
+                    String.format("cache hit %,.0f ns, before %,.0f ns", cached, before));
+            assertTrue(verified < before,
+                    String.format("one verification %,.0f ns, before %,.0f ns", verified, before));
+        } finally {
+            cacheManager.destroy();
+        }
+    }
+
+    private static double nanosPerOp(ToIntFunction<Integer> op) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < OPS; i++) {
+                sink += op.applyAsInt(i);
+            }
+            best = Math.min(best, (double) (System.nanoTime() - start) / OPS);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,103 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuSpringCache;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.config.JwtProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JwtProviderTest {
+
+    private LfuCacheManager cacheManager;
+    private SigningKeyRing keyRing;
+    private JwtProvider jwtProvider;
+    private LfuSpringCache verifiedTokens;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        keyRing = new SigningKeyRing(properties);
+        cacheManager = new LfuCacheManager(Map.of(JwtProvider.TOKENS_CACHE, new CacheProperties.Region()));
+        cacheManager.afterPropertiesSet();
+        jwtProvider = new JwtProvider(keyRing, cacheManager);
+        verifiedTokens = cacheManager.getLfuCache(JwtProvider.TOKENS_CACHE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    void parseReturnsAllClaims() {
+        long before = System.currentTimeMillis();
+        String token = jwtProvider.generateToken(7L, "a@example.com", "ADMIN");
+
+        TokenClaims claims = jwtProvider.parse(token);
+
+        assertEquals("a@example.com", claims.getSubject());
+        assertEquals("ADMIN", claims.getRole());
+        assertEquals(7L, claims.getUserId());
+        assertTrue(claims.getTokenId() != null && !claims.getTokenId().isBlank());
+        assertTrue(claims.getIssuedAt() >= before);
+        assertTrue(claims.getIssuedAt() <= System.currentTimeMillis());
+        assertEquals(JwtProvider.EXPIRATION, claims.getExpiresAt() - claims.getIssuedAt(), 1000);
+    }
+
+    @Test
+    void verifiedTokenIsAnsweredFromCache() {
+        String token = jwtProvider.generateToken(7L, "a@example.com", "USER");
+
+        TokenClaims first = jwtProvider.parse(token);
+        long hits = verifiedTokens.getStats().hitCount();
+
+        assertEquals("a@example.com", jwtProvider.getEmail(token));
+        assertEquals("USER", jwtProvider.getRole(token));
+        assertEquals(hits + 2, verifiedTokens.getStats().hitCount());
+        assertSame(first, jwtProvider.parse(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedAndNotCached() {
+        String token = jwtProvider.generateToken(7L, "a@example.com", "USER");
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin@example.com\",\"role\":\"ADMIN\"}".getBytes());
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtProvider.parse(forged));
+        assertThrows(JwtException.class, () -> jwtProvider.parse(forged));
+        assertEquals(0, verifiedTokens.size());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        SigningKeyRing.SigningKey signingKey = keyRing.current();
+        String expired = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .setSubject("a@example.com")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 2 * JwtProvider.EXPIRATION))
+                .setExpiration(new Date(System.currentTimeMillis() - JwtProvider.EXPIRATION))
+                .signWith(signingKey.getKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtProvider.parse(expired));
+        assertEquals(0, verifiedTokens.size());
+    }
+}
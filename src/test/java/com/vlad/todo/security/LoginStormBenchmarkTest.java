@@ -0,0 +1,102 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.vlad.todo.exception.ServiceUnavailableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Latency of cheap reads on a small request pool while a burst of logins
+ * arrives, with BCrypt run on the request threads and on the hashing pool.
+ */
+@Tag("benchmark")
+class LoginStormBenchmarkTest {
+
+    private static final int WORKERS = 8;
+    private static final int LOGINS = 64;
+    private static final int READS = 50;
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(8);
+    private final String hash = encoder.encode("secret-password");
+
+    @Test
+    void readLatencyStaysFlatDuringLoginStorm() throws Exception {
+        long[] idle = readLatencies(false, false);
+        long[] onRequestThreads = readLatencies(true, false);
+        long[] onHashingPool = readLatencies(true, true);
+
+        System.out.printf("read latency p50/p99 ms: idle %s, logins on request threads %s, "
+                        + "logins on hashing pool %s%n",
+                percentiles(idle), percentiles(onRequestThreads), percentiles(onHashingPool));
+        assertTrue(p99(onHashingPool) * 2 < p99(onRequestThreads), String.format(
+                "p99 %d ms with the hashing pool, %d ms without", p99(onHashingPool), p99(onRequestThreads)));
+    }
+
+    private long[] readLatencies(boolean storm, boolean hashingPool) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(WORKERS);
+        PasswordHasher hasher = new PasswordHasher(encoder, new PasswordCost(8, 0));
+        AtomicInteger shed = new AtomicInteger();
+        List<CompletableFuture<?>> logins = new ArrayList<>();
+        try {
+            if (storm) {
+                for (int i = 0; i < LOGINS; i++) {
+                    CompletableFuture<Object> login = new CompletableFuture<>();
+                    logins.add(login);
+                    requestThreads.execute(() -> {
+                        if (!hashingPool) {
+                            login.complete(encoder.matches("secret-password", hash));
+                            return;
+                        }
+                        try {
+                            // the request thread is released; the future completes the response
+                            hasher.matchesAsync("secret-password", hash)
+                                    .whenComplete((matches, error) -> login.complete(matches));
+                        } catch (ServiceUnavailableException ex) {
+                            shed.incrementAndGet();
+                            login.complete(null);
+                        }
+                    });
+                }
+            }
+            // one read every 10 ms, without waiting for the previous one
+            List<Future<Long>> reads = new ArrayList<>();
+            for (int i = 0; i < READS; i++) {
+                long submitted = System.nanoTime();
+                reads.add(requestThreads.submit(() -> System.nanoTime() - submitted));
+                Thread.sleep(10);
+            }
+            long[] latencies = new long[READS];
+            for (int i = 0; i < READS; i++) {
+                latencies[i] = TimeUnit.NANOSECONDS.toMillis(reads.get(i).get());
+            }
+            CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+            if (shed.get() > 0) {
+                System.out.printf("%d of %d logins shed with 503%n", shed.get(), LOGINS);
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            requestThreads.shutdownNow();
+            hasher.destroy();
+        }
+    }
+
+    private static long p99(long[] sorted) {
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+
+    private static String percentiles(long[] sorted) {
+        return sorted[sorted.length / 2] + "/" + p99(sorted);
+    }
+}
@@ -0,0 +1,96 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vlad.todo.exception.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordHasherTest {
+
+    private static final String HASH_BODY = "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final PasswordHasher hasher = new PasswordHasher(encoder, new PasswordCost(11, 0));
+
+    @AfterEach
+    void tearDown() {
+        hasher.destroy();
+    }
+
+    @Test
+    void weakerHashNeedsRehash() {
+        assertTrue(hasher.needsRehash("$2a$10$" + HASH_BODY));
+    }
+
+    @Test
+    void sameOrStrongerHashIsKept() {
+        assertFalse(hasher.needsRehash("$2a$11$" + HASH_BODY));
+        assertFalse(hasher.needsRehash("$2a$12$" + HASH_BODY));
+    }
+
+    @Test
+    void foreignHashIsKept() {
+        assertFalse(hasher.needsRehash("{noop}secret"));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    @Test
+    void hashingRunsOnThePool() {
+        when(encoder.encode(anyString())).thenAnswer(call -> Thread.currentThread().getName());
+
+        assertTrue(hasher.encodeAsync("secret").join().startsWith("password-hash-"));
+    }
+
+    @Test
+    void callersAreRejectedWhenPoolAndQueueAreFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(call -> release.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> {
+                for (int i = 0; i < 1000; i++) {
+                    accepted.add(hasher.matchesAsync("secret", "hash"));
+                }
+            });
+        } finally {
+            release.countDown();
+        }
+
+        assertTrue(accepted.size() < 1000);
+        accepted.forEach(match -> assertTrue(match.join()));
+    }
+
+    @Test
+    void batchIsHashedInOrder() {
+        when(encoder.encode(anyString())).thenAnswer(call -> "hash:" + call.getArgument(0));
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            passwords.add("p" + i);
+        }
+
+        List<String> hashes = hasher.encodeAll(passwords);
+
+        assertEquals(passwords.stream().map(p -> "hash:" + p).toList(), hashes);
+    }
+
+    @Test
+    void calibrationCanSelectCostBelowTen() {
+        PasswordCost cost = PasswordCost.calibrate(Duration.ofNanos(1), 8, 14);
+
+        assertEquals(8, cost.getStrength());
+    }
+}
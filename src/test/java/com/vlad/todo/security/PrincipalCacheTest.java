@@ -0,0 +1,74 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.model.User;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+class PrincipalCacheTest {
+
+    private LfuCacheManager cacheManager;
+    private PrincipalCache principalCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new LfuCacheManager(Map.of(PrincipalCache.CACHE_NAME, new CacheProperties.Region()));
+        cacheManager.afterPropertiesSet();
+        principalCache = new PrincipalCache(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    void principalIsNotCachedWhenItsUserIsEvictedDuringLoad() {
+        load("a@example.com", email -> {
+            principalCache.evict(user(email));
+            return details(email);
+        });
+        load("a@example.com", this::details);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictOfAnotherUserDoesNotDropLoad() {
+        for (int i = 0; i < 2; i++) {
+            load("a@example.com", email -> {
+                principalCache.evict(user("b@example.com"));
+                return details(email);
+            });
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    private void load(String email, Function<String, UserDetails> loader) {
+        principalCache.get(email, System.currentTimeMillis() + 60_000, key -> {
+            loads.incrementAndGet();
+            return loader.apply(key);
+        });
+    }
+
+    private UserDetails details(String email) {
+        return org.springframework.security.core.userdetails.User.withUsername(email)
+                .password("hash").roles("USER").build();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return user;
+    }
+}
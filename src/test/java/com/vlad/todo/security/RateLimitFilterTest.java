@@ -0,0 +1,67 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vlad.todo.config.RateLimitProperties;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+    private static RateLimitFilter filter(int maxClients) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPattern("/**");
+        rule.setCapacity(1);
+        rule.setPeriod(Duration.ofMinutes(1));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxClients(maxClients);
+        properties.setRules(List.of(rule));
+        return new RateLimitFilter(properties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static int status(RateLimitFilter filter, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void clientOverLimitIsRejected() throws Exception {
+        RateLimitFilter filter = filter(100);
+
+        assertEquals(200, status(filter, "10.0.0.1", null));
+        assertEquals(429, status(filter, "10.0.0.1", null));
+        assertEquals(200, status(filter, "10.0.0.2", null));
+    }
+
+    @Test
+    void forwardedForHeaderDoesNotSelectBucket() throws Exception {
+        RateLimitFilter filter = filter(100);
+
+        assertEquals(200, status(filter, "10.0.0.1", "1.1.1.1"));
+        assertEquals(429, status(filter, "10.0.0.1", "2.2.2.2"));
+    }
+
+    @Test
+    void newClientsPassUnlimitedWhileTableIsFullOfActiveClients() throws Exception {
+        RateLimitFilter filter = filter(2);
+
+        assertEquals(200, status(filter, "10.0.0.1", null));
+        assertEquals(200, status(filter, "10.0.0.2", null));
+        assertEquals(200, status(filter, "10.0.0.3", null));
+        assertEquals(200, status(filter, "10.0.0.3", null));
+        assertEquals(2, filter.untrackedRequests());
+        // clients already tracked are still limited
+        assertEquals(429, status(filter, "10.0.0.1", null));
+    }
+}
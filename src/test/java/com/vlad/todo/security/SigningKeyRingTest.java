@@ -0,0 +1,102 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.config.JwtProperties;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SigningKeyRingTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[48]);
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString(new byte[]{
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+            17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+
+    private final List<LfuCacheManager> cacheManagers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        cacheManagers.forEach(LfuCacheManager::destroy);
+    }
+
+    private static SigningKeyRing keyRing(String secret, Duration rotation) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        properties.setKeyRotation(rotation);
+        return new SigningKeyRing(properties);
+    }
+
+    /** A provider with its own verified-token cache, as on another node. */
+    private JwtProvider provider(SigningKeyRing keyRing) {
+        LfuCacheManager nodeCache =
+                new LfuCacheManager(Map.of(JwtProvider.TOKENS_CACHE, new CacheProperties.Region()));
+        nodeCache.afterPropertiesSet();
+        cacheManagers.add(nodeCache);
+        return new JwtProvider(keyRing, nodeCache);
+    }
+
+    @Test
+    void tokenSignedOnOneNodeVerifiesOnAnother() {
+        String token = provider(keyRing(SECRET, Duration.ofDays(1))).generateToken(1L, "a@example.com", "USER");
+
+        TokenClaims claims = provider(keyRing(SECRET, Duration.ofDays(1))).parse(token);
+
+        assertEquals("a@example.com", claims.getSubject());
+        assertEquals(1L, claims.getUserId());
+    }
+
+    @Test
+    void tokensOfPreviousKeyVerifyAfterRotation() throws InterruptedException {
+        SigningKeyRing keyRing = keyRing(SECRET, Duration.ofSeconds(1));
+        JwtProvider signer = provider(keyRing);
+        String before = signer.generateToken(1L, "a@example.com", "USER");
+        long period = keyRing.current().getPeriod();
+        while (keyRing.current().getPeriod() == period) {
+            Thread.sleep(50);
+        }
+        String after = signer.generateToken(1L, "a@example.com", "USER");
+
+        JwtProvider verifier = provider(keyRing(SECRET, Duration.ofSeconds(1)));
+        assertNotEquals(kidOf(before), kidOf(after));
+        assertEquals("a@example.com", verifier.parse(before).getSubject());
+        assertEquals("a@example.com", verifier.parse(after).getSubject());
+    }
+
+    @Test
+    void tokenOfAnotherSecretIsRejected() {
+        String token = provider(keyRing(OTHER_SECRET, Duration.ofDays(1))).generateToken(1L, "a@example.com", "USER");
+
+        assertThrows(JwtException.class, () -> provider(keyRing(SECRET, Duration.ofDays(1))).parse(token));
+    }
+
+    @Test
+    void retiredAndFutureKeysAreRejected() {
+        SigningKeyRing keyRing = keyRing(SECRET, Duration.ofHours(1));
+        long period = keyRing.current().getPeriod();
+
+        assertEquals(keyRing.current().getKey(), keyRing.keyFor("p" + period));
+        keyRing.keyFor("p" + (period - 1));
+        keyRing.keyFor("p" + (period + 1));
+        assertThrows(SignatureException.class, () -> keyRing.keyFor("p" + (period - 3)));
+        assertThrows(SignatureException.class, () -> keyRing.keyFor("p" + (period + 2)));
+        assertThrows(SignatureException.class, () -> keyRing.keyFor("k1"));
+        assertThrows(SignatureException.class, () -> keyRing.keyFor(null));
+    }
+
+    private static String kidOf(String token) {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        return header.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+}
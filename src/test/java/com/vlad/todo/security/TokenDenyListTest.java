@@ -0,0 +1,55 @@
+package com.vlad.todo.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenDenyListTest {
+
+    private final TokenDenyList denyList = new TokenDenyList();
+
+    private static TokenClaims token(String tokenId, long issuedAt) {
+        return new TokenClaims("user@example.com", "USER", 1L, tokenId,
+                issuedAt, issuedAt + JwtProvider.EXPIRATION);
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    @Test
+    void revokedTokenIdIsRejected() {
+        TokenClaims claims = token("a", currentSecond());
+
+        denyList.revoke(claims);
+
+        assertTrue(denyList.isRevoked(claims));
+        assertFalse(denyList.isRevoked(token("b", currentSecond())));
+    }
+
+    @Test
+    void subjectRevocationCoversEarlierTokensOnly() throws InterruptedException {
+        TokenClaims earlier = token("a", currentSecond() - 1000);
+
+        denyList.revokeSubject("user@example.com");
+        Thread.sleep(2);
+        TokenClaims reissued = token("b", System.currentTimeMillis());
+
+        assertTrue(denyList.isRevoked(earlier));
+        assertFalse(denyList.isRevoked(reissued));
+    }
+
+    @Test
+    void tokenIssuedEarlierInSameSecondIsRevoked() throws InterruptedException {
+        while (System.currentTimeMillis() % 1000 > 900) {
+            Thread.sleep(10);
+        }
+        TokenClaims issued = token("a", System.currentTimeMillis());
+        Thread.sleep(2);
+
+        denyList.revokeSubject("user@example.com");
+
+        assertTrue(denyList.isRevoked(issued));
+    }
+}
@@ -0,0 +1,171 @@
+package com.vlad.todo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.cache.TaskListCache;
+import com.vlad.todo.dto.TaskBatchResult;
+import com.vlad.todo.dto.TaskBatchUpdate;
+import com.vlad.todo.dto.TaskDtoRequest;
+import com.vlad.todo.exception.InvalidInputException;
+import com.vlad.todo.mapper.TaskMapper;
+import com.vlad.todo.model.Task;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.TaskRepository;
+import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.CurrentUser;
+import jakarta.validation.Validation;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TaskBatchServiceTest {
+
+    private static final long OWNER = 1L;
+    private static final long STRANGER = 2L;
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TaskListCache taskListCache = mock(TaskListCache.class);
+    private final CurrentUser currentUser = mock(CurrentUser.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private TaskBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUser.getId()).thenReturn(OWNER);
+        when(currentUser.isAdmin()).thenReturn(false);
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(call -> user(call.getArgument(0)));
+        when(taskRepository.saveAll(anyList())).thenAnswer(call -> {
+            List<Task> tasks = call.getArgument(0);
+            tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+            return tasks;
+        });
+        when(taskRepository.findAllById(anyCollection())).thenAnswer(call -> {
+            Collection<Long> wanted = call.getArgument(0);
+            return wanted.stream()
+                    .filter(id -> id == 10L || id == 20L)
+                    .map(id -> task(id, id == 10L ? OWNER : STRANGER))
+                    .toList();
+        });
+        batchService = new TaskBatchService(taskRepository, userRepository, new TaskMapper(), taskListCache,
+                mock(NegativeCache.class), currentUser, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void createReportsEachItem() {
+        TaskDtoRequest blank = request("ok");
+        blank.setTitle(" ");
+
+        List<TaskBatchResult> results = batchService.create(Arrays.asList(request("first"), blank, null,
+                request("second")));
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(TaskBatchResult::getIndex).toList());
+        assertEquals("first", results.get(0).getTask().getTitle());
+        assertEquals(OWNER, results.get(0).getTask().getUserId());
+        assertEquals("Заголовок не должен быть пустым!", results.get(1).getError());
+        assertEquals("Пустой элемент", results.get(2).getError());
+        assertEquals("second", results.get(3).getTask().getTitle());
+        verify(taskListCache).evict(OWNER);
+    }
+
+    @Test
+    void adminCannotCreateTaskForMissingUser() {
+        when(currentUser.isAdmin()).thenReturn(true);
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(Set.of(OWNER));
+        TaskDtoRequest orphan = request("orphan");
+        orphan.setUserId(99L);
+
+        List<TaskBatchResult> results = batchService.create(List.of(request("kept"), orphan));
+
+        assertNull(results.get(0).getError());
+        assertEquals(String.format(UserService.USER_WITH_ID_NOT_FOUND, 99L), results.get(1).getError());
+    }
+
+    @Test
+    void updateRejectsTasksOfOtherUsers() {
+        List<TaskBatchResult> results = batchService.update(List.of(update(10L, "mine"), update(20L, "theirs"),
+                update(30L, "missing")));
+
+        assertEquals("mine", results.get(0).getTask().getTitle());
+        assertEquals("Вы не можете изменять эту задачу", results.get(1).getError());
+        assertEquals(String.format(TaskService.TASK_WITH_ID_NOT_FOUND, 30L), results.get(2).getError());
+        verify(taskListCache).evict(OWNER);
+        verify(taskListCache, never()).evict(STRANGER);
+    }
+
+    @Test
+    void deleteRemovesOwnTasksOnly() {
+        List<Task> deleted = new ArrayList<>();
+        doAnswer(call -> {
+            deleted.addAll(call.getArgument(0));
+            return null;
+        }).when(taskRepository).deleteAllInBatch(anyList());
+
+        List<TaskBatchResult> results = batchService.delete(Arrays.asList(10L, 20L, 0L, 10L));
+
+        assertNull(results.get(0).getError());
+        assertEquals("Вы не можете удалять эту задачу", results.get(1).getError());
+        assertEquals("Id должен быть больше 0", results.get(2).getError());
+        assertNull(results.get(3).getError());
+        assertEquals(List.of(10L), deleted.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void batchOverLimitIsRejected() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= TaskBatchService.MAX_BATCH_SIZE + 1; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(InvalidInputException.class, () -> batchService.delete(ids));
+        assertThrows(InvalidInputException.class, () -> batchService.delete(List.of()));
+    }
+
+    private static TaskDtoRequest request(String title) {
+        TaskDtoRequest request = new TaskDtoRequest();
+        request.setTitle(title);
+        request.setIsCompleted(false);
+        request.setIsImportant(false);
+        request.setDeadlineDate(LocalDate.of(2030, 1, 1));
+        request.setUserId(OWNER);
+        return request;
+    }
+
+    private static TaskBatchUpdate update(long id, String title) {
+        TaskBatchUpdate update = new TaskBatchUpdate();
+        update.setId(id);
+        update.setTitle(title);
+        return update;
+    }
+
+    private static Task task(long id, long ownerId) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("task-" + id);
+        task.setUser(user(ownerId));
+        return task;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,136 @@
+package com.vlad.todo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.vlad.todo.cache.LfuCacheManager;
+import com.vlad.todo.cache.LfuSpringCache;
+import com.vlad.todo.config.CacheProperties;
+import com.vlad.todo.dto.UserDtoResponse;
+import com.vlad.todo.mapper.UserMapper;
+import com.vlad.todo.model.Role;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.PasswordHasher;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+
+class UserCacheWarmerTest {
+
+    @TempDir
+    Path dir;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<LfuCacheManager> managers = new ArrayList<>();
+    private CacheProperties properties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new CacheProperties();
+        properties.getWarmup().setFile(dir.resolve("warmup/users.bin"));
+        properties.getWarmup().setMaxEntries(2);
+        properties.getWarmup().setBatchSize(1);
+        when(userRepository.findAllById(anyIterable())).thenAnswer(call -> StreamSupport
+                .stream(((Iterable<Long>) call.getArgument(0)).spliterator(), false)
+                .map(UserCacheWarmerTest::user)
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(LfuCacheManager::destroy);
+    }
+
+    @Test
+    void hottestUsersSurviveRestart() {
+        LfuCacheManager before = cacheManager();
+        LfuSpringCache users = before.getLfuCache(UserService.USERS_CACHE);
+        for (long id = 1; id <= 3; id++) {
+            users.put(id, new UserDtoResponse());
+        }
+        for (int i = 0; i < 5; i++) {
+            users.get(2L);
+            users.get(3L);
+        }
+        warmer(before).destroy();
+
+        LfuCacheManager after = cacheManager();
+        warmer(after).run(new DefaultApplicationArguments());
+
+        LfuSpringCache warmed = after.getLfuCache(UserService.USERS_CACHE);
+        assertEquals("user2@example.com", warmed.get(2L, UserDtoResponse.class).getEmail());
+        assertEquals("user3@example.com", warmed.get(3L, UserDtoResponse.class).getEmail());
+        assertNull(warmed.get(1L));
+    }
+
+    @Test
+    void missingSnapshotIsSkipped() {
+        LfuCacheManager manager = cacheManager();
+
+        warmer(manager).run(new DefaultApplicationArguments());
+
+        assertEquals(0, manager.getLfuCache(UserService.USERS_CACHE).size());
+        verify(userRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void corruptSnapshotIsSkipped() throws Exception {
+        Files.createDirectories(properties.getWarmup().getFile().getParent());
+        Files.write(properties.getWarmup().getFile(), new byte[] {1, 2, 3});
+        LfuCacheManager manager = cacheManager();
+
+        warmer(manager).run(new DefaultApplicationArguments());
+
+        assertEquals(0, manager.getLfuCache(UserService.USERS_CACHE).size());
+        verify(userRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void snapshotReplacesPreviousFile() throws Exception {
+        LfuCacheManager manager = cacheManager();
+        manager.getLfuCache(UserService.USERS_CACHE).put(7L, new UserDtoResponse());
+
+        warmer(manager).destroy();
+        warmer(manager).destroy();
+
+        try (var files = Files.list(properties.getWarmup().getFile().getParent())) {
+            assertEquals(List.of(properties.getWarmup().getFile()), files.toList());
+        }
+        assertTrue(Files.size(properties.getWarmup().getFile()) > 0);
+    }
+
+    private LfuCacheManager cacheManager() {
+        LfuCacheManager manager = new LfuCacheManager(Map.of(UserService.USERS_CACHE, new CacheProperties.Region()));
+        manager.afterPropertiesSet();
+        managers.add(manager);
+        return manager;
+    }
+
+    private UserCacheWarmer warmer(LfuCacheManager manager) {
+        return new UserCacheWarmer(properties, manager, userRepository, new UserMapper(mock(PasswordHasher.class)));
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
@@ -0,0 +1,98 @@
+package com.vlad.todo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.vlad.todo.cache.NegativeCache;
+import com.vlad.todo.dto.UserDtoRequest;
+import com.vlad.todo.dto.UserDtoResponse;
+import com.vlad.todo.dto.UserImportResult;
+import com.vlad.todo.mapper.UserMapper;
+import com.vlad.todo.model.User;
+import com.vlad.todo.repository.UserRepository;
+import com.vlad.todo.security.PasswordHasher;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class UserImportServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final AtomicLong ids = new AtomicLong();
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHasher.encodeAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0))
+                .stream().map(raw -> "hash-" + raw).toList());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+        when(userRepository.findExistingPhones(anyCollection())).thenReturn(Set.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(ids.incrementAndGet()));
+            return users;
+        });
+        importService = new UserImportService(userRepository, new UserMapper(passwordHasher), passwordHasher,
+                mock(NegativeCache.class), mock(EntityManager.class),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void invalidRowsAreReportedAndValidOnesCreated() {
+        UserImportResult result = importService.importUsers(List.of(
+                user("a@example.com", "111"),
+                user("not-an-email", "222"),
+                user("taken@example.com", "333"),
+                user("a@example.com", "444"),
+                UserDtoRequest.builder().email("b@example.com").password("short").firstName("B")
+                        .lastName("B").phone("555").role("USER").build(),
+                user("c@example.com", "666")));
+
+        assertEquals(List.of("a@example.com", "c@example.com"),
+                result.getCreated().stream().map(UserDtoResponse::getEmail).toList());
+        assertEquals(List.of(1, 2, 3, 4),
+                result.getErrors().stream().map(UserImportResult.RowError::getIndex).toList());
+        assertEquals("Некорректный формат почты", result.getErrors().get(0).getMessage());
+        assertEquals("Длина пароля должна быть от 6 до 72 символов", result.getErrors().get(3).getMessage());
+    }
+
+    @Test
+    void rejectedBatchIsRetriedRowByRow() {
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("users_email_key"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getEmail().equals("raced@example.com")) {
+                throw new DataIntegrityViolationException("users_email_key");
+            }
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+
+        UserImportResult result = importService.importUsers(List.of(
+                user("a@example.com", "111"),
+                user("raced@example.com", "222"),
+                user("c@example.com", "333")));
+
+        assertEquals(List.of("a@example.com", "c@example.com"),
+                result.getCreated().stream().map(UserDtoResponse::getEmail).toList());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Пользователь с такой-же почтой/телефоном уже существует",
+                result.getErrors().get(0).getMessage());
+    }
+
+    private static UserDtoRequest user(String email, String phone) {
+        return UserDtoRequest.builder().email(email).password("secret-password").firstName("First")
+                .lastName("Last").phone(phone).role("USER").build();
+    }
+}